@@ -6,26 +6,94 @@
  */
 import java.util.Vector;
 import java.util.LinkedList;
+import java.util.Hashtable;
 import java.util.Scanner;
-import java.io.PrintWriter;
 import java.io.FileNotFoundException;
-import java.io.File;
 import java.io.IOException;
-import javafoundations.LinkedQueue;
-import javafoundations.ArrayStack;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.HashSet;
 public class AdjListsGraph<T> implements Graph<T>
 {
     // instance variables 
     protected Vector<T> vertices;
     protected Vector<LinkedList<T>> arcs; // indices correspond to the vertices vector
+    protected Hashtable<T,Integer> index; // vertex -> its position in the vertices vector
+    protected Vector<LinkedList<T>> inArcs; // predecessors of each vertex, null when not tracked
     /**
      * Constructor for objects of class AdjListsGraph
      */
     public AdjListsGraph()
+    {
+        this(false);
+    }
+
+    /**
+     * Constructor for objects of class AdjListsGraph that can also keep
+     * the predecessors of every vertex up to date, so that getPredecessors
+     * and getInDegree do not have to look through the whole graph.
+     * This costs one more list entry per arc.
+     * 
+     * @param true to keep track of the predecessors of every vertex
+     */
+    public AdjListsGraph(boolean trackPredecessors)
+    {
+        this(trackPredecessors, 10);
+    }
+
+    /**
+     * Constructor for objects of class AdjListsGraph with room for the given
+     * number of vertices, so that loading a graph of known size does not
+     * have to grow its tables.
+     * 
+     * @param true to keep track of the predecessors of every vertex
+     * @param the number of vertices expected
+     */
+    public AdjListsGraph(boolean trackPredecessors, int expectedVertices)
     {
         // initialise instance variables
-        vertices = new Vector<T>();
-        arcs = new Vector<LinkedList<T>>();
+        int capacity = Math.max(expectedVertices, 10);
+        vertices = new Vector<T>(capacity);
+        arcs = new Vector<LinkedList<T>>(capacity);
+        index = new Hashtable<T,Integer>(capacity * 4 / 3 + 1);
+        if(trackPredecessors){
+            inArcs = new Vector<LinkedList<T>>(capacity);
+        }
+    }
+
+    /** 
+     * Returns the position of the given vertex in this graph, i.e. its 
+     * index in the vertices vector. Runs in constant time.
+     * 
+     * @param the vertex to look up
+     * @return the index of the vertex, or -1 if it is not in this graph or is null
+     */
+    public int getIndex(T vertex){
+        if(vertex == null){
+            return -1;
+        }
+        Integer i = index.get(vertex);
+        return (i == null) ? -1 : i.intValue();
+    }
+
+    /** 
+     * Returns the vertex stored at the given index of this graph.
+     * 
+     * @param the index of a vertex, between 0 and getNumVertices()-1
+     * @return the vertex at that index
+     */
+    public T getVertex(int i){
+        return vertices.get(i);
+    }
+
+    /** 
+     * Returns true if the given vertex is in this graph, false otherwise.
+     * 
+     * @param the vertex to look up
+     * @return true if the vertex is in this graph
+     */
+    public boolean containsVertex(T vertex){
+        return getIndex(vertex) != -1;
     }
 
     /** 
@@ -36,15 +104,16 @@ public class AdjListsGraph<T> implements Graph<T>
      * 
      *  */
     public String toString(){
-        String s = "This graph contains "+vertices.size() + " vertices";
-        s =s+ "\n Vertices: " + vertices;
+        StringBuilder s = new StringBuilder();
+        s.append("This graph contains ").append(vertices.size()).append(" vertices");
+        s.append("\n Vertices: ").append(vertices);
 
         for(int i=0; i<arcs.size(); i ++){
-            s = s+"\n From " + vertices.get(i) + ":" + arcs.get(i);
+            s.append("\n From ").append(vertices.get(i)).append(":").append(arcs.get(i));
 
         }
-        s = s + "\n"+ vertices.toString();
-        return s;
+        s.append("\n").append(vertices);
+        return s.toString();
     }
 
     /** 
@@ -84,17 +153,22 @@ public class AdjListsGraph<T> implements Graph<T>
 
     /** 
      * Adds the given vertex to this graph
-     * If the given vertex already exists, the graph does not change
+     * If the given vertex already exists, or is null, the graph does not change:
+     * null is never a vertex of this graph.
      * 
      * @param The vertex to be added to this graph
      * */
     public void addVertex (T vertex){
-        if(!vertices.contains(vertex)) //this ensures that nothing happens 
+        if(vertex != null && !containsVertex(vertex)) //this ensures that nothing happens 
         //if the given vertex exists already
 
         { 
+            index.put(vertex, vertices.size());
             vertices.add(vertex);
             arcs.add(new LinkedList<T>());
+            if(inArcs != null){
+                inArcs.add(new LinkedList<T>());
+            }
         }
 
     }
@@ -106,13 +180,29 @@ public class AdjListsGraph<T> implements Graph<T>
      * @param the vertex to be removed from this graph
      *  */
     public void removeVertex (T vertex){
-        if(vertices.contains(vertex)){
-            int index = vertices.indexOf(vertex);
-            vertices.remove(vertex);
-            arcs.remove(index);
-            for(int i = 0; i<arcs.size(); i++){
-                arcs.get(i).remove(vertex);
+        int pos = getIndex(vertex);
+        if(pos != -1){
+            if(inArcs != null){
+                //only the neighbours of the vertex have to be updated
+                for(T pred : inArcs.get(pos)){
+                    arcs.get(getIndex(pred)).remove(vertex);
+                }
+                for(T succ : arcs.get(pos)){
+                    inArcs.get(getIndex(succ)).remove(vertex);
+                }
+                inArcs.remove(pos);
+            }else{
+                for(int i = 0; i<arcs.size(); i++){
+                    arcs.get(i).remove(vertex);
 
+                }
+            }
+            vertices.remove(pos);
+            arcs.remove(pos);
+            index.remove(vertex);
+            //every vertex after the removed one moves down by one position
+            for(int i = pos; i<vertices.size(); i++){
+                index.put(vertices.get(i), i);
             }
         }
     }
@@ -127,11 +217,28 @@ public class AdjListsGraph<T> implements Graph<T>
      * 
      *  */
     public void addArc (T vertex1, T vertex2){
-        if(vertices.contains(vertex1)&&vertices.contains(vertex2)){
+        int index1 = getIndex(vertex1);
+        int index2 = getIndex(vertex2);
+        if(index1 != -1 && index2 != -1){
+            arcs.get(index1).add(vertex2);
+            if(inArcs != null){
+                inArcs.get(index2).add(vertex1);
+            }
 
-            int index = vertices.indexOf(vertex1);
-            arcs.get(index).add(vertex2);
+        }
+    }
 
+    /** 
+     * Inserts an arc between the vertices at two given indices, without
+     * looking the vertices up.
+     * 
+     * @param the index of the origin of the arc
+     * @param the index of the destination of the arc
+     * */
+    void addArcAt (int index1, int index2){
+        arcs.get(index1).add(vertices.get(index2));
+        if(inArcs != null){
+            inArcs.get(index2).add(vertices.get(index1));
         }
     }
 
@@ -144,8 +251,11 @@ public class AdjListsGraph<T> implements Graph<T>
      * 
      *  */
     public boolean isArc (T vertex1, T vertex2){
-        int index = vertices.indexOf(vertex1);
-        return arcs.get(index).contains(vertex2);
+        int index1 = getIndex(vertex1);
+        if(index1 == -1){
+            return false;
+        }
+        return arcs.get(index1).contains(vertex2);
     }
 
     /** 
@@ -158,9 +268,12 @@ public class AdjListsGraph<T> implements Graph<T>
      * 
      * */
     public void removeArc (T vertex1, T vertex2){
-        if(vertices.contains(vertex1)&&vertices.contains(vertex2)){
-            int index = vertices.indexOf(vertex1);
-            arcs.get(index).remove(vertex2);
+        int index1 = getIndex(vertex1);
+        int index2 = getIndex(vertex2);
+        if(index1 != -1 && index2 != -1){
+            if(arcs.get(index1).remove(vertex2) && inArcs != null){
+                inArcs.get(index2).remove(vertex1);
+            }
 
         }
 
@@ -203,11 +316,10 @@ public class AdjListsGraph<T> implements Graph<T>
      * 
      * */
     public boolean isEdge (T vertex1, T vertex2){
-        if(vertices.contains(vertex1)&&vertices.contains(vertex2)){
-
-            int index = vertices.indexOf(vertex1);
-            int index2 = vertices.indexOf(vertex2);
-            return arcs.get(index).contains(vertex2)&&arcs.get(index2).contains(vertex1);
+        int index1 = getIndex(vertex1);
+        int index2 = getIndex(vertex2);
+        if(index1 != -1 && index2 != -1){
+            return arcs.get(index1).contains(vertex2)&&arcs.get(index2).contains(vertex1);
         }else{
             return false;
         }
@@ -245,9 +357,9 @@ public class AdjListsGraph<T> implements Graph<T>
      *
      * */
     public LinkedList<T> getSuccessors(T vertex){
-        if(vertices.contains(vertex)){
-            int index = vertices.indexOf(vertex); 
-            return arcs.get(index);
+        int pos = getIndex(vertex);
+        if(pos != -1){
+            return arcs.get(pos);
         }else{
             return null;
         }
@@ -258,16 +370,28 @@ public class AdjListsGraph<T> implements Graph<T>
      * Return all the vertices x, in this graph, that precede a given
      * vertex.
      * 
+     * When predecessors are tracked, this takes time proportional to the
+     * number of predecessors, and they are listed in the order their first
+     * arcs were added. Each predecessor is listed once.
+     * 
      * @param A vertex in the graph whose predecessors will be returned.
      * @return LinkedList containing all the vertices x in the graph,
      * for which an arc exists from x to the given vertex (x -> vertex).
      * 
      * */
     public LinkedList<T> getPredecessors(T vertex){
+        if(inArcs != null){
+            int pos = getIndex(vertex);
+            if(pos == -1){
+                return new LinkedList<T>();
+            }
+            //parallel arcs leave a vertex in the list more than once, list it once
+            return new LinkedList<T>(new LinkedHashSet<T>(inArcs.get(pos)));
+        }
         LinkedList<T> predecessor = new LinkedList<T>();
         for(int i = 0; i<vertices.size(); i++){
             T curVert = vertices.get(i);
-            LinkedList<T> successors = getSuccessors(curVert);
+            LinkedList<T> successors = arcs.get(i);
             if(successors.contains(vertex)){
                 predecessor.add(curVert);
 
@@ -277,6 +401,33 @@ public class AdjListsGraph<T> implements Graph<T>
         return predecessor;
     }
 
+    /** 
+     * Returns the number of predecessors of the given vertex, which is
+     * always getPredecessors(vertex).size(): like there, a vertex with
+     * parallel arcs to the given one counts once. When predecessors are
+     * tracked, this takes time proportional to the number of arcs arriving
+     * at the vertex.
+     * 
+     * @param a vertex in this graph
+     * @return the in-degree of the vertex, 0 if it is not in this graph
+     * */
+    public int getInDegree(T vertex){
+        int pos = getIndex(vertex);
+        if(pos == -1){
+            return 0;
+        }
+        if(inArcs != null){
+            return new HashSet<T>(inArcs.get(pos)).size();
+        }
+        int count = 0;
+        for(int i = 0; i<arcs.size(); i++){
+            if(arcs.get(i).contains(vertex)){
+                count++;
+            }
+        }
+        return count;
+    }
+
     /** 
      * Writes this graph into a file in the TGF format.
      * 
@@ -285,22 +436,7 @@ public class AdjListsGraph<T> implements Graph<T>
      * */
     public void saveToTGF(String tgf_file_name){
         try{
-            PrintWriter writer = new PrintWriter(new File(tgf_file_name));
-            //writes the corresponding number to vertex
-            for(int i = 0; i < vertices.size(); i++){
-                writer.println((i+1) + " " + vertices.get(i));
-            }
-            writer.println("#");
-            for(int i = 0; i < vertices.size(); i++){
-                int currentNum = i + 1;
-                LinkedList<T> curList = arcs.get(i);
-                for(int j = 0; j<curList.size();j++){
-                    int pointTo = vertices.indexOf(curList.get(j))+1;
-                    writer.println(currentNum+" "+ pointTo);
-                }
-
-            }
-            writer.close();
+            new GraphExporter<T>(this).export(tgf_file_name, GraphExporter.Format.TGF);
         }
         catch(IOException e){
             System.out.println(e);
@@ -308,32 +444,56 @@ public class AdjListsGraph<T> implements Graph<T>
         }
     }
 
+    /** 
+     * Builds an immutable, compact copy of this graph in compressed sparse row
+     * form. Later changes to this graph do not affect the copy.
+     * 
+     * @return a CompactGraph with the same vertices and arcs as this graph
+     * */
+    public CompactGraph<T> freeze(){
+        int n = vertices.size();
+        Object[] vertexTable = vertices.toArray();
+        int[] offsets = new int[n+1];
+        for(int i = 0; i < n; i++){
+            offsets[i+1] = offsets[i] + arcs.get(i).size();
+        }
+        int[] targets = new int[offsets[n]];
+        int k = 0;
+        for(int i = 0; i < n; i++){
+            for(T next : arcs.get(i)){
+                targets[k++] = getIndex(next);
+            }
+        }
+        return new CompactGraph<T>(vertexTable, new Hashtable<T,Integer>(index), offsets, targets);
+    }
+
     /** 
      * returns the path of the breadth first traversal in the graph from given vertex 
      * 
      * @param the vertex from which the breadth first traversal should begin 
      * */
     public LinkedList<T> BFS(T vertex){
-        T curVert;
         LinkedList<T> iter = new LinkedList<T>();
-        if(!vertices.contains(vertex)){
+        int start = getIndex(vertex);
+        if(start == -1){
             return iter;
         }
-        LinkedQueue<T> queue = new LinkedQueue<T>(); //BFS uses queue data structure
-        boolean [] visited = new boolean[vertices.size()];
-        for(int i = 0; i < visited.length; i++){
-            visited[i] = false; //initially set booleans for each corresponding vertex to false 
-        }
-        queue.enqueue(vertex); // add vertex to queue
-        visited[vertices.indexOf(vertex)] = true;
-        while(!queue.isEmpty()){ 
-            curVert = queue.dequeue();
-            iter.add(curVert);
-            LinkedList<T> adj = getSuccessors(curVert);
-            for(int i=0; i<adj.size(); i++){
-                if(!visited[vertices.indexOf(adj.get(i))]){
-                    queue.enqueue(adj.get(i));
-                    visited[vertices.indexOf(adj.get(i))] = true;
+        //BFS uses a queue; every vertex enters it at most once, so a plain
+        //array of vertex indices is enough
+        int[] queue = new int[vertices.size()];
+        int head = 0;
+        int tail = 0;
+        boolean [] visited = new boolean[vertices.size()]; //all false initially
+        queue[tail++] = start; // add vertex to queue
+        visited[start] = true;
+        while(head < tail){ 
+            int cur = queue[head++];
+            iter.add(vertices.get(cur));
+            for(T next : arcs.get(cur)){
+                int nextIndex = getIndex(next);
+                if(!visited[nextIndex]){
+                    queue[tail++] = nextIndex;
+                    visited[nextIndex] = true;
                 }
 
             }
@@ -347,53 +507,38 @@ public class AdjListsGraph<T> implements Graph<T>
      * 
      * @param the vertex from which the depth first traversal should begin 
      * */
+    @SuppressWarnings("unchecked")
     public LinkedList<T> DFS(T vertex){
-        T curVert;
         LinkedList<T> iter = new LinkedList<T>();
-        if(!vertices.contains(vertex)){
-            return null; //if the vertex from where BFS should begin is not in the graph, then return null
+        int start = getIndex(vertex);
+        if(start == -1){
+            return null; //if the vertex from where DFS should begin is not in the graph, then return null
         }
-        ArrayStack<T> stack = new ArrayStack<T>(); // BFS uses stack data structure
-        boolean [] visited = new boolean[vertices.size()]; 
-        //keeps track of whether a vertice is in BFS path or not 
-
-        for(int i = 0; i < visited.length; i++){
-            visited[i] = false; //initially set the booleans for each vertice to false 
-        }
-        stack.push(vertex); // take the first vertex
-        visited[vertices.indexOf(vertex)] = true; // visit the first vertext
+        // DFS uses a stack of vertex indices; each vertex on the stack keeps an
+        // iterator over its successors, so no successor is looked at twice
+        int[] stack = new int[vertices.size()];
+        Iterator<T>[] cursor = (Iterator<T>[]) new Iterator<?>[vertices.size()];
+        boolean [] visited = new boolean[vertices.size()]; //all false initially
+        int top = 0;
+        stack[top++] = start; // take the first vertex
+        cursor[start] = arcs.get(start).iterator();
+        visited[start] = true; // visit the first vertex
         iter.add(vertex);
-        while(!stack.isEmpty()){
-
-            curVert = stack.peek();
-            LinkedList<T> successors = getSuccessors(curVert);
-            if(successors.size()!=0){ // if the vertex does have successors
-                boolean allVisit = true;
-                for(int i = 0; i<successors.size(); i++){
-                    if(!visited[vertices.indexOf(successors.get(i))]){ 
-                        //if each of the successors has not been visited 
-                        allVisit = false;
-
-                    }
-                }
-                if(allVisit){
-                    stack.pop(); 
-                    // if all the successors of that vertex have been visited then remove from stack
-                }else{    
-                    compare:
-                    for(int i = 0; i<successors.size(); i++){ //go through each successor and visit 
-                        if(!visited[vertices.indexOf(successors.get(i))]){
-                            stack.push(successors.get(i));
-                            iter.add(successors.get(i));
-                            visited[vertices.indexOf(successors.get(i))] = true;
-                            break compare;
-                        }
-
-                    }
-                }
-
+        while(top > 0){
+            int cur = stack[top-1];
+            if(!cursor[cur].hasNext()){
+                // all the successors of that vertex have been visited, remove it from stack
+                cursor[cur] = null;
+                top--;
             }else{
-                stack.pop();
+                T next = cursor[cur].next();
+                int nextIndex = getIndex(next);
+                if(!visited[nextIndex]){
+                    stack[top++] = nextIndex;
+                    cursor[nextIndex] = arcs.get(nextIndex).iterator();
+                    iter.add(next);
+                    visited[nextIndex] = true;
+                }
             }
 
         }
@@ -504,5 +649,62 @@ public class AdjListsGraph<T> implements Graph<T>
         System.out.println("For cycle expecting: DFS:[1,2,3] BFS:[1,2,3]");
         System.out.println(cycle.DFS(1)+ " "+ cycle.BFS(1));
 
+        System.out.println("*****Testing freeze()*****");
+        CompactGraph<Integer> frozenTree = tree.freeze();
+        System.out.println("getNumArcs() expecting: " + tree.getNumArcs() + " result: " + frozenTree.getNumArcs());
+        System.out.println("For frozen tree expecting: DFS from 1:[1, 2, 4, 5, 3, 6, 7] BFS from 1:[1, 2, 3, 4, 5, 6, 7]");
+        System.out.println(frozenTree.DFS(1)+ " "+ frozenTree.BFS(1));
+        System.out.println("For frozen cycle expecting: successors from 3:[2, 1] predecessors from 3:[1, 2]");
+        System.out.println(cycle.freeze().getSuccessors(3)+ " "+ cycle.freeze().getPredecessors(3));
+        System.out.println("getOutDegree(2) expecting: 2 result: " + frozenTree.getOutDegree(2)
+            + " getInDegree(2) expecting: 1 result: " + frozenTree.getInDegree(2));
+
+        System.out.println("*****Testing tracked predecessors*****");
+        AdjListsGraph<String> tracked = new AdjListsGraph<String>(true);
+        tracked.addVertex("A");
+        tracked.addVertex("B");
+        tracked.addVertex("C");
+        tracked.addArc("A","C");
+        tracked.addEdge("B","C");
+        System.out.println("predecessors of C expecting: [A, B] result: " + tracked.getPredecessors("C")
+            + " getInDegree(C) expecting: 2 result: " + tracked.getInDegree("C"));
+        tracked.removeArc("A","C");
+        System.out.println("after removeArc(A,C) predecessors of C expecting: [B] result: " + tracked.getPredecessors("C"));
+        tracked.removeVertex("B");
+        System.out.println("after removeVertex(B) predecessors of C expecting: [] result: " + tracked.getPredecessors("C")
+            + " getInDegree(C) expecting: 0 result: " + tracked.getInDegree("C"));
+        AdjListsGraph<String> untracked = new AdjListsGraph<String>();
+        untracked.addVertex("A");
+        untracked.addVertex("C");
+        for(int i = 0; i < 2; i++){
+            tracked.addArc("A","C");
+            untracked.addArc("A","C");
+        }
+        System.out.println("parallel arcs, predecessors of C expecting: [A] [A] result: " + tracked.getPredecessors("C")
+            + " " + untracked.getPredecessors("C"));
+        System.out.println("parallel arcs, getInDegree(C) expecting: 1 1 result: " + tracked.getInDegree("C")
+            + " " + untracked.getInDegree("C"));
+        untracked.addVertex(null);
+        System.out.println("addVertex(null) is ignored expecting: 2 -1 result: " + untracked.getNumVertices()
+            + " " + untracked.getIndex(null));
+
+        System.out.println("*****Testing TraversalEngine*****");
+        TraversalEngine engine = frozenTree.getTraversalEngine();
+        engine.bfs(frozenTree.getIndex(1));
+        System.out.println("depth of 7 expecting: 2 result: " + engine.getDepth(frozenTree.getIndex(7))
+            + " parent of 7 expecting: 3 result: " + frozenTree.getVertex(engine.getParent(frozenTree.getIndex(7))));
+        engine.dfs(frozenTree.getIndex(3));
+        System.out.println("DFS from 3 visits expecting: 3 result: " + engine.getVisitedCount()
+            + " isVisited(1) expecting: false result: " + engine.isVisited(frozenTree.getIndex(1)));
+        frozenTree.release(engine);
+        System.out.println("released engine is reused expecting: true result: " + (frozenTree.getTraversalEngine() == engine));
+
+        System.out.println("*****Testing vertex index after removeVertex()*****");
+        tree.removeVertex(2);
+        System.out.println("getIndex(3) expecting: 1 result: " + tree.getIndex(3));
+        System.out.println("getIndex(2) expecting: -1 result: " + tree.getIndex(2));
+        System.out.println("For tree without 2 expecting: BFS from 1:[1, 3, 6, 7] result: " + tree.BFS(1));
+        System.out.println("isArc(3,7) expecting: true result: " + tree.isArc(3,7));
+
     }
 }
@@ -0,0 +1,174 @@
+/**
+ * A set of named metrics computed from a graph, each computed at most once
+ * per version of the graph.
+ *
+ * A metric is defined with a name, the names of the metrics it needs, and a
+ * function that computes it; the function can read the metrics it needs
+ * with get. Metrics must be defined after the metrics they need, so there
+ * are no cycles. Asking for a metric starts the metrics it needs, and
+ * metrics that do not need each other are computed at the same time on
+ * the common fork/join pool.
+ *
+ * Results are kept until the version of the graph changes; the next request
+ * after that drops them all and starts again.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.util.Hashtable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+public class AnalysisPipeline
+{
+    /**
+     * A named metric and the metrics it needs.
+     */
+    private static class Metric
+    {
+        final String[] needs;
+        final Function<AnalysisPipeline,?> compute;
+
+        Metric(String[] needs, Function<AnalysisPipeline,?> compute)
+        {
+            this.needs = needs;
+            this.compute = compute;
+        }
+    }
+
+    // instance variables
+    private final IntSupplier version;
+    private final Hashtable<String,Metric> metrics = new Hashtable<String,Metric>();
+    private Hashtable<String,CompletableFuture<Object>> results = new Hashtable<String,CompletableFuture<Object>>();
+    private int resultsVersion;
+
+    /**
+     * Constructor for objects of class AnalysisPipeline
+     *
+     * @param gives the current version of the graph the metrics are computed from
+     */
+    public AnalysisPipeline(IntSupplier version)
+    {
+        this.version = version;
+        resultsVersion = version.getAsInt();
+    }
+
+    /**
+     * Defines a metric.
+     *
+     * @param the name of the metric
+     * @param the names of the metrics it needs, which must already be defined
+     * @param computes the metric; it can get the metrics it needs from the pipeline
+     */
+    public synchronized void define(String name, String[] needs, Function<AnalysisPipeline,?> compute){
+        if(metrics.containsKey(name)){
+            throw new IllegalArgumentException("metric " + name + " is already defined");
+        }
+        for(String need : needs){
+            if(!metrics.containsKey(need)){
+                throw new IllegalArgumentException("metric " + name + " needs " + need + ", which is not defined");
+            }
+        }
+        metrics.put(name, new Metric(needs.clone(), compute));
+    }
+
+    /**
+     * Returns the value of a metric, computing it and the metrics it needs
+     * if they have not been computed for the current version of the graph.
+     *
+     * @param the name of the metric
+     * @return its value
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(String name){
+        try{
+            return (V) start(name).join();
+        }catch(CompletionException e){
+            if(e.getCause() instanceof RuntimeException){
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Starts computing several metrics at the same time, without waiting for them.
+     *
+     * @param the names of the metrics
+     */
+    public void prefetch(String... names){
+        for(String name : names){
+            start(name);
+        }
+    }
+
+    /**
+     * Returns true if the metric has been computed for the current version of the graph.
+     *
+     * @param the name of the metric
+     * @return true if get would not compute anything
+     */
+    public synchronized boolean isComputed(String name){
+        dropIfStale();
+        CompletableFuture<Object> result = results.get(name);
+        return result != null && result.isDone();
+    }
+
+    /**
+     * Returns the running or finished computation of a metric, starting it,
+     * and the metrics it needs, if needed.
+     */
+    private synchronized CompletableFuture<Object> start(String name){
+        dropIfStale();
+        CompletableFuture<Object> result = results.get(name);
+        if(result != null){
+            return result;
+        }
+        Metric metric = metrics.get(name);
+        if(metric == null){
+            throw new IllegalArgumentException("no metric named " + name);
+        }
+        CompletableFuture<?>[] inputs = new CompletableFuture<?>[metric.needs.length];
+        for(int i = 0; i < inputs.length; i++){
+            inputs[i] = start(metric.needs[i]);
+        }
+        result = CompletableFuture.allOf(inputs).thenApplyAsync(done -> metric.compute.apply(this));
+        results.put(name, result);
+        return result;
+    }
+
+    /**
+     * Drops all the results if the graph has changed since they were computed.
+     */
+    private void dropIfStale(){
+        int current = version.getAsInt();
+        if(current != resultsVersion){
+            results = new Hashtable<String,CompletableFuture<Object>>();
+            resultsVersion = current;
+        }
+    }
+
+    public static void main(String[] args){
+        System.out.println("*****TESTING*****");
+        int[] version = {1};
+        int[] runs = new int[1];
+        AnalysisPipeline p = new AnalysisPipeline(() -> version[0]);
+        p.define("base", new String[0], q -> {
+            synchronized(runs){
+                runs[0]++;
+            }
+            return version[0] * 10;
+        });
+        p.define("double", new String[]{"base"}, q -> q.<Integer>get("base") * 2);
+        p.define("plusOne", new String[]{"base"}, q -> q.<Integer>get("base") + 1);
+        p.prefetch("double", "plusOne");
+        System.out.println("double expecting: 20 result: " + p.get("double"));
+        System.out.println("plusOne expecting: 11 result: " + p.get("plusOne"));
+        System.out.println("base computed once expecting: 1 result: " + runs[0]);
+        version[0] = 2;
+        System.out.println("isComputed(base) after a change expecting: false result: " + p.isComputed("base"));
+        System.out.println("double after a change expecting: 40 result: " + p.get("double"));
+        System.out.println("base computed again expecting: 2 result: " + runs[0]);
+    }
+}
@@ -0,0 +1,354 @@
+/**
+ * A bipartite graph of users and stories, where every arc joins a user to a
+ * story. Each side has its own dense id space: users are numbered
+ * 0 .. getNumUsers()-1 and stories 0 .. getNumStories()-1, and each side
+ * keeps its adjacency in compressed sparse row form (the stories of every
+ * user, and the users of every story) together with an array of degrees.
+ *
+ * Code that needs one id space for both sides uses global ids: a user keeps
+ * its own id, and a story with id s has global id getNumUsers()+s. The side
+ * of a global id is then a single comparison, so traversal and metric code
+ * never has to look up a vertex in a table to tell users and stories apart.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.util.Hashtable;
+import java.util.function.Predicate;
+public class BipartiteGraph<T>
+{
+    // instance variables
+    private final Object[] users; // user id -> vertex
+    private final Object[] stories; // story id -> vertex
+    private final Hashtable<T,Integer> userIds;
+    private final Hashtable<T,Integer> storyIds;
+    private final int[] userOffsets; // stories of user u are userTargets[userOffsets[u] .. userOffsets[u+1]-1]
+    private final int[] userTargets;
+    private final int[] storyOffsets; // users of story s are storyTargets[storyOffsets[s] .. storyOffsets[s+1]-1]
+    private final int[] storyTargets;
+    private final int[] userDegree;
+    private final int[] storyDegree;
+
+    /**
+     * Constructor for objects of class BipartiteGraph. Splits the vertices
+     * of a graph into users and stories; only the arcs from users to
+     * stories are kept, and parallel ones only once, so the degree of a
+     * story is the number of its distinct users.
+     *
+     * @param the graph, where every arc joins a user and a story
+     * @param tells whether a vertex of g is a user; all the other vertices are stories
+     */
+    public BipartiteGraph(CompactGraph<T> g, Predicate<T> isUser)
+    {
+        int n = g.getNumVertices();
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        //give every vertex an id on its side
+        int[] sideId = new int[n];
+        boolean[] userSide = new boolean[n];
+        int numUsers = 0;
+        int numStories = 0;
+        for(int v = 0; v < n; v++){
+            userSide[v] = isUser.test(g.getVertex(v));
+            sideId[v] = userSide[v] ? numUsers++ : numStories++;
+        }
+        users = new Object[numUsers];
+        stories = new Object[numStories];
+        userIds = new Hashtable<T,Integer>(Math.max(16, numUsers * 2));
+        storyIds = new Hashtable<T,Integer>(Math.max(16, numStories * 2));
+        userDegree = new int[numUsers];
+        storyDegree = new int[numStories];
+        //user whose row last reached each story, so parallel arcs are kept once
+        int[] lastUser = new int[numStories];
+        java.util.Arrays.fill(lastUser, -1);
+        for(int v = 0; v < n; v++){
+            T vertex = g.getVertex(v);
+            if(userSide[v]){
+                users[sideId[v]] = vertex;
+                userIds.put(vertex, sideId[v]);
+                for(int k = offsets[v]; k < offsets[v+1]; k++){
+                    if(!userSide[targets[k]] && lastUser[sideId[targets[k]]] != sideId[v]){
+                        lastUser[sideId[targets[k]]] = sideId[v];
+                        userDegree[sideId[v]]++;
+                        storyDegree[sideId[targets[k]]]++;
+                    }
+                }
+            }else{
+                stories[sideId[v]] = vertex;
+                storyIds.put(vertex, sideId[v]);
+            }
+        }
+        userOffsets = prefixSums(userDegree);
+        storyOffsets = prefixSums(storyDegree);
+        userTargets = new int[userOffsets[numUsers]];
+        storyTargets = new int[storyOffsets[numStories]];
+        int[] storyFill = new int[numStories];
+        java.util.Arrays.fill(lastUser, -1);
+        for(int v = 0; v < n; v++){
+            if(!userSide[v]){
+                continue;
+            }
+            int u = sideId[v];
+            int pos = userOffsets[u];
+            for(int k = offsets[v]; k < offsets[v+1]; k++){
+                int w = targets[k];
+                if(!userSide[w] && lastUser[sideId[w]] != u){
+                    int s = sideId[w];
+                    lastUser[s] = u;
+                    userTargets[pos++] = s;
+                    storyTargets[storyOffsets[s] + storyFill[s]++] = u;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the start of every row for the given row lengths, with one
+     * extra entry at the end holding the total.
+     */
+    private static int[] prefixSums(int[] degree){
+        int[] offsets = new int[degree.length + 1];
+        for(int i = 0; i < degree.length; i++){
+            offsets[i+1] = offsets[i] + degree[i];
+        }
+        return offsets;
+    }
+
+    /**
+     * Returns the number of users.
+     *
+     * @return the number of users
+     */
+    public int getNumUsers(){
+        return users.length;
+    }
+
+    /**
+     * Returns the number of stories.
+     *
+     * @return the number of stories
+     */
+    public int getNumStories(){
+        return stories.length;
+    }
+
+    /**
+     * Returns the number of user-story arcs.
+     *
+     * @return the number of arcs
+     */
+    public int getNumArcs(){
+        return userTargets.length;
+    }
+
+    /**
+     * Returns the user with the given id.
+     *
+     * @param a user id
+     * @return the user
+     */
+    @SuppressWarnings("unchecked")
+    public T getUser(int u){
+        return (T) users[u];
+    }
+
+    /**
+     * Returns the story with the given id.
+     *
+     * @param a story id
+     * @return the story
+     */
+    @SuppressWarnings("unchecked")
+    public T getStory(int s){
+        return (T) stories[s];
+    }
+
+    /**
+     * Returns the id of a user.
+     *
+     * @param a user
+     * @return its user id, -1 if it is not a user of this graph
+     */
+    public int getUserId(T user){
+        Integer u = userIds.get(user);
+        return (u == null) ? -1 : u.intValue();
+    }
+
+    /**
+     * Returns the id of a story.
+     *
+     * @param a story
+     * @return its story id, -1 if it is not a story of this graph
+     */
+    public int getStoryId(T story){
+        Integer s = storyIds.get(story);
+        return (s == null) ? -1 : s.intValue();
+    }
+
+    /**
+     * Returns true if the given vertex is a user of this graph.
+     *
+     * @param a vertex
+     * @return true if it is a user
+     */
+    public boolean isUser(T vertex){
+        return userIds.containsKey(vertex);
+    }
+
+    /**
+     * Returns true if the given vertex is a story of this graph.
+     *
+     * @param a vertex
+     * @return true if it is a story
+     */
+    public boolean isStory(T vertex){
+        return storyIds.containsKey(vertex);
+    }
+
+    /**
+     * Returns the number of stories of a user.
+     *
+     * @param a user id
+     * @return its number of stories
+     */
+    public int userDegree(int u){
+        return userDegree[u];
+    }
+
+    /**
+     * Returns the number of users of a story.
+     *
+     * @param a story id
+     * @return its number of users
+     */
+    public int storyDegree(int s){
+        return storyDegree[s];
+    }
+
+    /**
+     * Returns the ids of the stories of a user.
+     *
+     * @param a user id
+     * @return a new array with its story ids
+     */
+    public int[] storiesOf(int u){
+        return java.util.Arrays.copyOfRange(userTargets, userOffsets[u], userOffsets[u+1]);
+    }
+
+    /**
+     * Returns the ids of the users of a story.
+     *
+     * @param a story id
+     * @return a new array with its user ids
+     */
+    public int[] usersOf(int s){
+        return java.util.Arrays.copyOfRange(storyTargets, storyOffsets[s], storyOffsets[s+1]);
+    }
+
+    // the arrays below are shared, not copied, and must not be changed
+
+    int[] getUserDegrees(){
+        return userDegree;
+    }
+
+    int[] getStoryDegrees(){
+        return storyDegree;
+    }
+
+    int[] getUserOffsets(){
+        return userOffsets;
+    }
+
+    int[] getUserTargets(){
+        return userTargets;
+    }
+
+    int[] getStoryOffsets(){
+        return storyOffsets;
+    }
+
+    int[] getStoryTargets(){
+        return storyTargets;
+    }
+
+    /**
+     * Returns the global id of a user.
+     *
+     * @param a user id
+     * @return its global id
+     */
+    public int userToGlobal(int u){
+        return u;
+    }
+
+    /**
+     * Returns the global id of a story.
+     *
+     * @param a story id
+     * @return its global id
+     */
+    public int storyToGlobal(int s){
+        return users.length + s;
+    }
+
+    /**
+     * Returns true if the given global id belongs to a user.
+     *
+     * @param a global id
+     * @return true for a user, false for a story
+     */
+    public boolean isUserId(int global){
+        return global < users.length;
+    }
+
+    /**
+     * Returns the id of a global id on its own side.
+     *
+     * @param a global id
+     * @return the user id or story id
+     */
+    public int localId(int global){
+        return (global < users.length) ? global : global - users.length;
+    }
+
+    /**
+     * Computes the hop distance from one vertex to every other vertex with a
+     * breadth first search that alternates between the two sides.
+     *
+     * @param the global id of the vertex to start from
+     * @return the distance of every vertex, indexed by global id, -1 if unreachable
+     */
+    public int[] hopDistances(int source){
+        int numUsers = users.length;
+        int[] dist = new int[numUsers + stories.length];
+        java.util.Arrays.fill(dist, -1);
+        int[] queue = new int[dist.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        dist[source] = 0;
+        while(head < tail){
+            int v = queue[head++];
+            int d = dist[v] + 1;
+            if(v < numUsers){
+                for(int k = userOffsets[v]; k < userOffsets[v+1]; k++){
+                    int w = numUsers + userTargets[k];
+                    if(dist[w] == -1){
+                        dist[w] = d;
+                        queue[tail++] = w;
+                    }
+                }
+            }else{
+                int s = v - numUsers;
+                for(int k = storyOffsets[s]; k < storyOffsets[s+1]; k++){
+                    int w = storyTargets[k];
+                    if(dist[w] == -1){
+                        dist[w] = d;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+        }
+        return dist;
+    }
+}
@@ -0,0 +1,215 @@
+/**
+ * Computes how central the vertices of a connected part of a CompactGraph
+ * are, measured by the sum of their hop distances to all the other vertices
+ * of that part (the smaller the sum, the more central the vertex). The
+ * vertices are given as an array of indices, usually the members of one
+ * connected component, and the graph is taken to be undirected.
+ *
+ * The exact mode runs one breadth first search per vertex, spread over the
+ * threads of a fork-join pool. The approximate mode runs searches only from
+ * a random sample of pivot vertices and scales up each vertex's summed
+ * distance to the pivots, which is an unbiased estimate of its distance
+ * sum. It also reports a bound on the error of every estimate that holds
+ * with 95% confidence (by Hoeffding's inequality over all the vertices).
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+public class ClosenessCentrality
+{
+    // the error bound holds for all vertices at once with probability 1-CONFIDENCE_GAP
+    private static final double CONFIDENCE_GAP = 0.05;
+
+    // instance variables
+    private final CompactGraph<?> g;
+    private final ForkJoinPool pool;
+
+    // results of the last computation
+    private int[] vertices;
+    private double[] sums; // distance sum of vertices[i]
+    private double errorBound;
+
+    /**
+     * Constructor for objects of class ClosenessCentrality, running on the common fork-join pool
+     *
+     * @param the graph whose vertices are measured
+     */
+    public ClosenessCentrality(CompactGraph<?> g)
+    {
+        this(g, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for objects of class ClosenessCentrality
+     *
+     * @param the graph whose vertices are measured
+     * @param the pool whose threads run the searches
+     */
+    public ClosenessCentrality(CompactGraph<?> g, ForkJoinPool pool)
+    {
+        this.g = g;
+        this.pool = pool;
+    }
+
+    /**
+     * Computes the exact distance sum of every given vertex, with one
+     * breadth first search per vertex, in parallel.
+     *
+     * @param the indices of the vertices to measure, all in one connected component
+     */
+    public void computeExact(int[] vertices){
+        this.vertices = vertices;
+        sums = new double[vertices.length];
+        errorBound = 0;
+        pool.submit(() -> IntStream.range(0, vertices.length).parallel().forEach(i -> {
+            TraversalEngine engine = g.getTraversalEngine();
+            engine.bfs(vertices[i]);
+            long sum = 0;
+            for(int j = 0; j < engine.getVisitedCount(); j++){
+                sum += engine.getDepth(engine.getOrder(j));
+            }
+            g.release(engine);
+            sums[i] = sum;
+        })).join();
+    }
+
+    /**
+     * Estimates the distance sum of every given vertex from the distances to
+     * a random sample of pivots. With as many samples as vertices, this is
+     * the same as computeExact.
+     *
+     * @param the indices of the vertices to measure, all in one connected component
+     * @param the number of pivots to search from
+     * @param the seed of the random pivot choice, so that results can be repeated
+     */
+    public void computeApproximate(int[] vertices, int samples, long seed){
+        int m = vertices.length;
+        if(samples >= m){
+            computeExact(vertices);
+            return;
+        }
+        this.vertices = vertices;
+        //choose the pivots without replacement (partial Fisher-Yates shuffle)
+        int[] pivots = Arrays.copyOf(vertices, m);
+        Random random = new Random(seed);
+        for(int i = 0; i < samples; i++){
+            int j = i + random.nextInt(m - i);
+            int t = pivots[i];
+            pivots[i] = pivots[j];
+            pivots[j] = t;
+        }
+        //position of every vertex in the vertices array
+        int[] position = new int[g.getNumVertices()];
+        Arrays.fill(position, -1);
+        for(int i = 0; i < m; i++){
+            position[vertices[i]] = i;
+        }
+        //each group of pivots adds its distances into its own array, merged afterwards
+        int groups = Math.min(samples, pool.getParallelism() * 2);
+        long[][] partial = new long[groups][];
+        int[] eccentricity = new int[samples];
+        pool.submit(() -> IntStream.range(0, groups).parallel().forEach(grp -> {
+            long[] acc = new long[m];
+            TraversalEngine engine = g.getTraversalEngine();
+            for(int p = grp; p < samples; p += groups){
+                engine.bfs(pivots[p]);
+                int ecc = 0;
+                for(int j = 0; j < engine.getVisitedCount(); j++){
+                    int v = engine.getOrder(j);
+                    int d = engine.getDepth(v);
+                    if(position[v] != -1){
+                        acc[position[v]] += d;
+                    }
+                    ecc = Math.max(ecc, d);
+                }
+                eccentricity[p] = ecc;
+            }
+            g.release(engine);
+            partial[grp] = acc;
+        })).join();
+
+        sums = new double[m];
+        double scale = (double) m / samples;
+        for(int grp = 0; grp < groups; grp++){
+            for(int i = 0; i < m; i++){
+                sums[i] += partial[grp][i];
+            }
+        }
+        for(int i = 0; i < m; i++){
+            sums[i] *= scale;
+        }
+        //the diameter is at most twice the eccentricity of any vertex
+        int diameter = Integer.MAX_VALUE;
+        for(int p = 0; p < samples; p++){
+            diameter = Math.min(diameter, 2 * eccentricity[p]);
+        }
+        //Hoeffding: the mean of the sampled distances is within
+        //diameter*sqrt(ln(2m/gap)/(2k)) of the true mean, for all m vertices at once
+        double meanError = diameter * Math.sqrt(Math.log(2.0 * m / CONFIDENCE_GAP) / (2.0 * samples));
+        errorBound = meanError * m;
+    }
+
+    /**
+     * Returns the distance sum of the vertex at the given position of the
+     * array measured last.
+     *
+     * @param a position in the array of measured vertices
+     * @return the (exact or estimated) sum of its distances to the other vertices
+     */
+    public double getDistanceSum(int i){
+        return sums[i];
+    }
+
+    /**
+     * Returns the closeness centrality of the vertex at the given position
+     * of the array measured last, i.e. the inverse of its average distance.
+     *
+     * @param a position in the array of measured vertices
+     * @return its closeness, between 0 and 1
+     */
+    public double getCloseness(int i){
+        return (sums[i] == 0) ? 0 : (vertices.length - 1) / sums[i];
+    }
+
+    /**
+     * Returns how far any of the last distance sums can be from the true
+     * value: 0 after computeExact, and a bound that holds for all vertices
+     * with 95% confidence after computeApproximate.
+     *
+     * @return the error bound of the distance sums
+     */
+    public double getErrorBound(){
+        return errorBound;
+    }
+
+    /**
+     * Returns the most central vertices measured last, those with the
+     * smallest distance sum.
+     *
+     * @return the vertex indices with the smallest distance sum, in the order they were given
+     */
+    public int[] getMostCentral(){
+        double min = Double.MAX_VALUE;
+        int count = 0;
+        for(int i = 0; i < sums.length; i++){
+            if(sums[i] < min){
+                min = sums[i];
+                count = 1;
+            }else if(sums[i] == min){
+                count++;
+            }
+        }
+        int[] central = new int[count];
+        int k = 0;
+        for(int i = 0; i < sums.length; i++){
+            if(sums[i] == min){
+                central[k++] = vertices[i];
+            }
+        }
+        return central;
+    }
+}
@@ -0,0 +1,370 @@
+/**
+ * The one-mode projection of a bipartite graph of users and stories onto
+ * its users: two users are linked when they share a story, and the weight
+ * of the link is the number of stories they share. Users that push many of
+ * the same stories, such as coordinated troll accounts, get heavy links.
+ *
+ * The projection is the sparse matrix product A * A^T of the user-to-story
+ * adjacency matrix A with its transpose, computed row by row from the
+ * compressed sparse rows of the bipartite graph: for every story of a user,
+ * every user of that story gets one more shared story in a dense
+ * accumulator indexed by user id, and only the entries touched are read
+ * back and cleared. Blocks of rows are computed in parallel, each block
+ * with an accumulator no other block is using, so no locking is needed.
+ *
+ * Links lighter than a minimum weight are left out, and every user keeps
+ * at most k links, the heaviest; ties are broken in favour of the smaller
+ * user id. With a limit of k the links need not be symmetric: v can be
+ * among the top k of u while u is not among the top k of v. Each user's
+ * links are listed heaviest first.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+public class CoStoryProjection<T>
+{
+    // rows computed together by one task
+    private static final int BLOCK = 256;
+
+    /**
+     * The work arrays of one thread, sized for the graph.
+     */
+    private static class Scratch
+    {
+        final int[] weight; // user id -> stories shared with the current row
+        final int[] touched; // user ids with a non-zero weight
+        final int[] userStamp; // marks users already counted for the current story
+        final int[] storyStamp; // marks stories already seen for the current row
+        int stamp;
+
+        Scratch(int numUsers, int numStories)
+        {
+            weight = new int[numUsers];
+            touched = new int[numUsers];
+            userStamp = new int[numUsers];
+            storyStamp = new int[numStories];
+        }
+    }
+
+    /**
+     * The links of the rows of one block, laid out like the final arrays.
+     */
+    private static class Block
+    {
+        int[] counts = new int[BLOCK];
+        int[] neighbours = new int[64];
+        int[] weights = new int[64];
+        int size;
+
+        void add(int neighbour, int w){
+            if(size == neighbours.length){
+                neighbours = Arrays.copyOf(neighbours, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            neighbours[size] = neighbour;
+            weights[size++] = w;
+        }
+    }
+
+    // instance variables
+    private final BipartiteGraph<T> bg;
+    private final int minWeight;
+    private final int k;
+    private final int[] offsets; // links of user u are neighbours/weights[offsets[u] .. offsets[u+1]-1]
+    private final int[] neighbours;
+    private final int[] weights;
+
+    /**
+     * Constructor for objects of class CoStoryProjection. Computes the
+     * projection, on all cores.
+     *
+     * @param the users, the stories and the arcs between them
+     * @param the lowest number of shared stories kept, at least 1
+     * @param the most links kept per user, Integer.MAX_VALUE for all of them
+     */
+    public CoStoryProjection(BipartiteGraph<T> bg, int minWeight, int k)
+    {
+        if(k < 0){
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        this.bg = bg;
+        this.minWeight = Math.max(1, minWeight);
+        this.k = k;
+        int numUsers = bg.getNumUsers();
+        int numStories = bg.getNumStories();
+        int numBlocks = (numUsers + BLOCK - 1) / BLOCK;
+        Block[] blocks = new Block[numBlocks];
+        //work arrays not in use; a block takes one and puts it back, so there are never
+        //more than there are threads, and they go away with the projection's constructor
+        ConcurrentLinkedQueue<Scratch> scratch = new ConcurrentLinkedQueue<Scratch>();
+        IntStream.range(0, numBlocks).parallel().forEach(b -> {
+            Block block = new Block();
+            Scratch s = scratch.poll();
+            if(s == null){
+                s = new Scratch(numUsers, numStories);
+            }
+            int end = Math.min(numUsers, (b + 1) * BLOCK);
+            for(int u = b * BLOCK; u < end; u++){
+                block.counts[u - b * BLOCK] = row(bg, this.minWeight, k, u, s, block);
+            }
+            scratch.offer(s);
+            blocks[b] = block;
+        });
+        //lay the blocks out one after another
+        offsets = new int[numUsers + 1];
+        int total = 0;
+        for(int b = 0; b < numBlocks; b++){
+            int end = Math.min(numUsers, (b + 1) * BLOCK);
+            for(int u = b * BLOCK; u < end; u++){
+                total += blocks[b].counts[u - b * BLOCK];
+                offsets[u + 1] = total;
+            }
+        }
+        neighbours = new int[total];
+        weights = new int[total];
+        for(int b = 0; b < numBlocks; b++){
+            int start = offsets[b * BLOCK];
+            System.arraycopy(blocks[b].neighbours, 0, neighbours, start, blocks[b].size);
+            System.arraycopy(blocks[b].weights, 0, weights, start, blocks[b].size);
+        }
+    }
+
+    /**
+     * Returns the users who share the most stories with one user, heaviest
+     * link first, without computing the links of any other user.
+     *
+     * @param the users, the stories and the arcs between them
+     * @param a user of the bipartite graph
+     * @param the lowest number of shared stories kept, at least 1
+     * @param the most links kept
+     * @return LinkedList<T> - the linked users, empty if the user is not in the graph
+     */
+    public static <T> LinkedList<T> partnersOf(BipartiteGraph<T> bg, T user, int minWeight, int k){
+        if(k < 0){
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        LinkedList<T> result = new LinkedList<T>();
+        if(!bg.isUser(user)){
+            return result;
+        }
+        Block block = new Block();
+        row(bg, Math.max(1, minWeight), k, bg.getUserId(user), new Scratch(bg.getNumUsers(), bg.getNumStories()), block);
+        for(int i = 0; i < block.size; i++){
+            result.add(bg.getUser(block.neighbours[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Computes the links of one user and adds them to the block.
+     *
+     * @return the number of links added
+     */
+    private static <T> int row(BipartiteGraph<T> bg, int minWeight, int k, int u, Scratch s, Block block){
+        int[] userOffsets = bg.getUserOffsets();
+        int[] userTargets = bg.getUserTargets();
+        int[] storyOffsets = bg.getStoryOffsets();
+        int[] storyTargets = bg.getStoryTargets();
+        int numTouched = 0;
+        for(int i = userOffsets[u]; i < userOffsets[u+1]; i++){
+            int story = userTargets[i];
+            if(s.storyStamp[story] == u + 1){
+                continue; // the same story listed twice
+            }
+            s.storyStamp[story] = u + 1;
+            if(s.stamp == Integer.MAX_VALUE){
+                //start the marks again rather than wrap around to old ones
+                Arrays.fill(s.userStamp, 0);
+                s.stamp = 0;
+            }
+            s.stamp++;
+            for(int j = storyOffsets[story]; j < storyOffsets[story+1]; j++){
+                int v = storyTargets[j];
+                if(v == u || s.userStamp[v] == s.stamp){
+                    continue;
+                }
+                s.userStamp[v] = s.stamp;
+                if(s.weight[v] == 0){
+                    s.touched[numTouched++] = v;
+                }
+                s.weight[v]++;
+            }
+        }
+        //keep the links heavy enough, by increasing user id, and clear the accumulator
+        Arrays.sort(s.touched, 0, numTouched);
+        int kept = 0;
+        int[] candidates = new int[numTouched];
+        int[] candidateWeights = new int[numTouched];
+        for(int t = 0; t < numTouched; t++){
+            int v = s.touched[t];
+            if(s.weight[v] >= minWeight){
+                candidates[kept] = v;
+                candidateWeights[kept++] = s.weight[v];
+            }
+            s.weight[v] = 0;
+        }
+        int[] best = TopK.top(Arrays.copyOf(candidateWeights, kept), Math.min(k, kept));
+        for(int c : best){
+            block.add(candidates[c], candidateWeights[c]);
+        }
+        return best.length;
+    }
+
+    /**
+     * gets the bipartite graph this is the projection of
+     *
+     * @return BipartiteGraph<T> - the graph
+     */
+    public BipartiteGraph<T> getBipartiteGraph(){
+        return bg;
+    }
+
+    /**
+     * Returns the number of links kept, counting the link from u to v and
+     * the link from v to u separately.
+     *
+     * @return int - the number of links
+     */
+    public int getNumLinks(){
+        return neighbours.length;
+    }
+
+    /**
+     * Returns the users linked to a user, heaviest link first.
+     *
+     * @param a user id of the bipartite graph
+     * @return a new array of user ids
+     */
+    public int[] neighboursOf(int u){
+        return Arrays.copyOfRange(neighbours, offsets[u], offsets[u+1]);
+    }
+
+    /**
+     * Returns the weights of the links of a user, in the order of neighboursOf(u).
+     *
+     * @param a user id of the bipartite graph
+     * @return a new array with the number of stories shared with each neighbour
+     */
+    public int[] weightsOf(int u){
+        return Arrays.copyOfRange(weights, offsets[u], offsets[u+1]);
+    }
+
+    /**
+     * Returns the weight of the link from one user to another.
+     *
+     * @param a user id
+     * @param another user id
+     * @return the number of stories they share, 0 if the link was not kept
+     */
+    public int getWeight(int u, int v){
+        for(int i = offsets[u]; i < offsets[u+1]; i++){
+            if(neighbours[i] == v){
+                return weights[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the users linked to a user, heaviest link first.
+     *
+     * @param a user of the bipartite graph
+     * @return LinkedList<T> - the linked users, empty if the user is not in the graph
+     */
+    public LinkedList<T> getNeighbours(T user){
+        LinkedList<T> result = new LinkedList<T>();
+        if(!bg.isUser(user)){
+            return result;
+        }
+        int u = bg.getUserId(user);
+        for(int i = offsets[u]; i < offsets[u+1]; i++){
+            result.add(bg.getUser(neighbours[i]));
+        }
+        return result;
+    }
+
+    // the arrays below are shared, not copied, and must not be changed
+
+    int[] getOffsets(){
+        return offsets;
+    }
+
+    int[] getNeighbours(){
+        return neighbours;
+    }
+
+    int[] getWeights(){
+        return weights;
+    }
+
+    public static void main(String[] args){
+        System.out.println("*****TESTING*****");
+        AdjListsGraph<String> g = new AdjListsGraph<String>();
+        String[][] shares = {{"a", "1"}, {"a", "2"}, {"a", "3"}, {"b", "1"}, {"b", "2"}, {"c", "2"}, {"d", "4"}};
+        for(String[] share : shares){
+            g.addVertex(share[0]);
+            g.addVertex(share[1]);
+            g.addEdge(share[0], share[1]);
+        }
+        g.addEdge("a", "1"); // the same share twice must not count twice
+        BipartiteGraph<String> bg = new BipartiteGraph<String>(g.freeze(), v -> Character.isLetter(v.charAt(0)));
+        CoStoryProjection<String> all = new CoStoryProjection<String>(bg, 1, Integer.MAX_VALUE);
+        int a = bg.getUserId("a");
+        int b = bg.getUserId("b");
+        System.out.println("weight(a,b) expecting: 2 result: " + all.getWeight(a, b));
+        System.out.println("neighbours of a expecting: [b, c] result: " + all.getNeighbours("a"));
+        System.out.println("neighbours of d expecting: [] result: " + all.getNeighbours("d"));
+        System.out.println("links expecting: 6 result: " + all.getNumLinks());
+        CoStoryProjection<String> heavy = new CoStoryProjection<String>(bg, 2, Integer.MAX_VALUE);
+        System.out.println("links of weight 2 or more expecting: 2 result: " + heavy.getNumLinks());
+        CoStoryProjection<String> top1 = new CoStoryProjection<String>(bg, 1, 1);
+        System.out.println("top link of c, a tie broken by id expecting: [a] result: " + top1.getNeighbours("c"));
+
+        //compare with counting shared stories pair by pair on a random graph
+        Random random = new Random(7);
+        AdjListsGraph<String> big = new AdjListsGraph<String>();
+        for(int i = 0; i < 3000; i++){
+            String user = "u" + random.nextInt(600);
+            String story = "" + random.nextInt(200);
+            big.addVertex(user);
+            big.addVertex(story);
+            if(!big.isArc(user, story)){
+                big.addEdge(user, story);
+            }
+        }
+        BipartiteGraph<String> rbg = new BipartiteGraph<String>(big.freeze(), v -> v.startsWith("u"));
+        CoStoryProjection<String> p = new CoStoryProjection<String>(rbg, 1, Integer.MAX_VALUE);
+        boolean same = true;
+        for(int u = 0; u < rbg.getNumUsers(); u++){
+            for(int v = 0; v < rbg.getNumUsers(); v++){
+                int shared = 0;
+                if(u != v){
+                    for(int s : rbg.storiesOf(u)){
+                        for(int t : rbg.storiesOf(v)){
+                            shared += (s == t) ? 1 : 0;
+                        }
+                    }
+                }
+                same = same && p.getWeight(u, v) == shared;
+            }
+        }
+        System.out.println("weights same as pair by pair expecting: true result: " + same);
+        String user = rbg.getUser(0);
+        System.out.println("one user's links same as in the projection expecting: true result: "
+            + partnersOf(rbg, user, 1, 5).equals(new CoStoryProjection<String>(rbg, 1, 5).getNeighbours(user)));
+
+        //a scratch whose marks are about to run out, with users marked long ago
+        Scratch s = new Scratch(rbg.getNumUsers(), rbg.getNumStories());
+        s.stamp = Integer.MAX_VALUE;
+        Arrays.fill(s.userStamp, 1);
+        Block block = new Block();
+        row(rbg, 1, Integer.MAX_VALUE, 0, s, block);
+        System.out.println("links after the marks start again expecting: " + p.neighboursOf(0).length
+            + " result: " + block.size);
+    }
+}
@@ -0,0 +1,594 @@
+/**
+ * An immutable snapshot of a graph stored in compressed sparse row (CSR) form.
+ * The successors of the vertex with index i are the vertex indices
+ * targets[offsets[i]] .. targets[offsets[i+1]-1], and the vertex objects
+ * themselves are kept in a side table. Build one with AdjListsGraph.freeze()
+ * once a graph is done being built, and use it for read-heavy analysis.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.util.LinkedList;
+import java.util.Hashtable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.io.IOException;
+public class CompactGraph<T> implements Graph<T>
+{
+    // instance variables
+    private final Object[] vertexTable; // index -> vertex
+    private volatile Hashtable<T,Integer> index; // vertex -> index, built the first time it is needed if not given
+    private final int[] offsets; // offsets[i] is where the successors of vertex i start
+    private final int[] targets; // successor indices, one per arc
+    // reverse adjacency, built the first time it is needed
+    private volatile int[] inOffsets;
+    private int[] inTargets;
+    // traversal engines and shortest path searchers not in use, kept for
+    // the next query; they belong to the graph and go away with it
+    private final ConcurrentLinkedQueue<TraversalEngine> engines = new ConcurrentLinkedQueue<TraversalEngine>();
+    private final ConcurrentLinkedQueue<ShortestPath> searchers = new ConcurrentLinkedQueue<ShortestPath>();
+
+    /**
+     * Constructor for objects of class CompactGraph.
+     * The arrays are used as given, they are not copied.
+     *
+     * @param the vertices, in index order
+     * @param the index of every vertex in the vertexTable, null to build it from the vertexTable when first needed
+     * @param the start of each vertex's successors in targets, of length vertexTable.length+1
+     * @param the successor indices of all vertices, one after another
+     */
+    CompactGraph(Object[] vertexTable, Hashtable<T,Integer> index, int[] offsets, int[] targets)
+    {
+        this.vertexTable = vertexTable;
+        this.index = index;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Returns the position of the given vertex in this graph.
+     *
+     * @param the vertex to look up
+     * @return the index of the vertex, or -1 if it is not in this graph
+     */
+    public int getIndex(T vertex){
+        if(vertex == null){
+            return -1;
+        }
+        Hashtable<T,Integer> map = index;
+        if(map == null){
+            map = buildIndex();
+        }
+        Integer i = map.get(vertex);
+        return (i == null) ? -1 : i.intValue();
+    }
+
+    /**
+     * Returns the vertex stored at the given index of this graph.
+     *
+     * @param the index of a vertex, between 0 and getNumVertices()-1
+     * @return the vertex at that index
+     */
+    @SuppressWarnings("unchecked")
+    public T getVertex(int i){
+        return (T) vertexTable[i];
+    }
+
+    /**
+     * Returns the offsets array of this graph. It is shared, not copied,
+     * and must not be changed.
+     */
+    int[] getOffsets(){
+        return offsets;
+    }
+
+    /**
+     * Returns the targets array of this graph. It is shared, not copied,
+     * and must not be changed.
+     */
+    int[] getTargets(){
+        return targets;
+    }
+
+    /**
+     * Returns the reverse offsets array of this graph: the predecessors of
+     * vertex i are getInTargets()[getInOffsets()[i]] .. getInTargets()[getInOffsets()[i+1]-1].
+     * It is shared, not copied, and must not be changed.
+     */
+    int[] getInOffsets(){
+        buildReverse();
+        return inOffsets;
+    }
+
+    /**
+     * Returns the reverse targets array of this graph. It is shared, not
+     * copied, and must not be changed.
+     */
+    int[] getInTargets(){
+        buildReverse();
+        return inTargets;
+    }
+
+    /**
+     * Returns a traversal engine over this graph that nobody else is using,
+     * one handed back earlier if there is one. Hand it back with
+     * release(engine) when done, so that the next traversal can reuse it.
+     *
+     * @return a TraversalEngine over this graph, for the caller only until it is released
+     */
+    public TraversalEngine getTraversalEngine(){
+        TraversalEngine engine = engines.poll();
+        return (engine == null) ? new TraversalEngine(this) : engine;
+    }
+
+    /**
+     * Hands back an engine got from getTraversalEngine(). It must not be used afterwards.
+     *
+     * @param the engine
+     */
+    public void release(TraversalEngine engine){
+        engines.offer(engine);
+    }
+
+    /**
+     * Returns the number of hops on a shortest path between two vertices,
+     * found with a bidirectional breadth first search.
+     *
+     * @param the vertex where the path starts
+     * @param the vertex where the path ends
+     * @return the hop distance, or -1 if there is no path or a vertex is not in this graph
+     */
+    public int distance(T vertex1, T vertex2){
+        int v1 = getIndex(vertex1);
+        int v2 = getIndex(vertex2);
+        if(v1 == -1 || v2 == -1){
+            return -1;
+        }
+        ShortestPath searcher = getShortestPath();
+        try{
+            return searcher.distance(v1, v2);
+        }finally{
+            searchers.offer(searcher);
+        }
+    }
+
+    /**
+     * Returns a shortest path between two vertices, found with a
+     * bidirectional breadth first search.
+     *
+     * @param the vertex where the path starts
+     * @param the vertex where the path ends
+     * @return the vertices on the path, from vertex1 to vertex2, or null if
+     * there is no path or a vertex is not in this graph
+     */
+    public LinkedList<T> shortestPath(T vertex1, T vertex2){
+        int v1 = getIndex(vertex1);
+        int v2 = getIndex(vertex2);
+        if(v1 == -1 || v2 == -1){
+            return null;
+        }
+        ShortestPath searcher = getShortestPath();
+        int[] path;
+        try{
+            path = searcher.path(v1, v2);
+        }finally{
+            searchers.offer(searcher);
+        }
+        if(path == null){
+            return null;
+        }
+        LinkedList<T> result = new LinkedList<T>();
+        for(int v : path){
+            result.add(getVertex(v));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a shortest path searcher over this graph that nobody else is
+     * using, to be put back in searchers when done.
+     */
+    private ShortestPath getShortestPath(){
+        ShortestPath searcher = searchers.poll();
+        return (searcher == null) ? new ShortestPath(this) : searcher;
+    }
+
+    /**
+     * Finds the connected components of this graph in one pass over its arcs.
+     *
+     * @return the ConnectedComponents of this graph
+     */
+    public ConnectedComponents components(){
+        return new ConnectedComponents(this);
+    }
+
+    /**
+     * Returns true if the given vertex is in this graph, false otherwise.
+     *
+     * @param the vertex to look up
+     * @return true if the vertex is in this graph
+     */
+    public boolean containsVertex(T vertex){
+        return getIndex(vertex) != -1;
+    }
+
+    /**
+     * Returns a boolean indicating whether this graph is empty or not.
+     *
+     * @return true if this graph is empty, false otherwise.
+     */
+    public boolean isEmpty(){
+        return vertexTable.length == 0;
+    }
+
+    /**
+     * Returns the number of vertices in this graph.
+     *
+     * @return the number of vertices in this graph
+     */
+    public int getNumVertices(){
+        return vertexTable.length;
+    }
+
+    /**
+     * Returns the number of arcs in this graph.
+     *
+     * @return the number of arcs in this graph
+     */
+    public int getNumArcs(){
+        return targets.length;
+    }
+
+    /**
+     * Returns the number of successors of the vertex with the given index.
+     *
+     * @param the index of a vertex
+     * @return the out-degree of that vertex
+     */
+    public int outDegree(int v){
+        return offsets[v+1] - offsets[v];
+    }
+
+    /**
+     * Returns the number of arcs arriving at the vertex with the given index,
+     * parallel arcs included.
+     *
+     * @param the index of a vertex
+     * @return the number of arcs arriving at that vertex
+     */
+    public int inDegree(int v){
+        buildReverse();
+        return inOffsets[v+1] - inOffsets[v];
+    }
+
+    /**
+     * Returns the number of arcs leaving the given vertex.
+     *
+     * @param a vertex in this graph
+     * @return the out-degree of the vertex, or 0 if it is not in this graph
+     */
+    public int getOutDegree(T vertex){
+        int v = getIndex(vertex);
+        return (v == -1) ? 0 : outDegree(v);
+    }
+
+    /**
+     * Returns the number of predecessors of the given vertex, which is
+     * always getPredecessors(vertex).size(): a vertex with parallel arcs to
+     * the given one counts once.
+     *
+     * @param a vertex in this graph
+     * @return the in-degree of the vertex, or 0 if it is not in this graph
+     */
+    public int getInDegree(T vertex){
+        int v = getIndex(vertex);
+        if(v == -1){
+            return 0;
+        }
+        buildReverse();
+        int count = 0;
+        int last = -1;
+        for(int k = inOffsets[v]; k < inOffsets[v+1]; k++){
+            //sources are in increasing order, so parallel arcs are next to each other
+            if(inTargets[k] != last){
+                count++;
+                last = inTargets[k];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns true if an arc exists from the first vertex to the second,
+     * false otherwise
+     *
+     * @return true if an arc exists from vertex1 to vertex2, false otherwise
+     */
+    public boolean isArc (T vertex1, T vertex2){
+        int v1 = getIndex(vertex1);
+        int v2 = getIndex(vertex2);
+        if(v1 == -1 || v2 == -1){
+            return false;
+        }
+        return hasArc(v1, v2);
+    }
+
+    /**
+     * Returns true if there is an arc between the vertices with the given indices.
+     */
+    private boolean hasArc(int v1, int v2){
+        for(int k = offsets[v1]; k < offsets[v1+1]; k++){
+            if(targets[k] == v2){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if an edge exists between two given vertices, i.e.
+     * there are arcs in both directions, false otherwise.
+     *
+     * @return true if an edge exists between vertex1 and vertex2, false otherwise
+     */
+    public boolean isEdge (T vertex1, T vertex2){
+        int v1 = getIndex(vertex1);
+        int v2 = getIndex(vertex2);
+        if(v1 == -1 || v2 == -1){
+            return false;
+        }
+        return hasArc(v1, v2) && hasArc(v2, v1);
+    }
+
+    /**
+     * Returns true if for every arc in this graph the opposite arc
+     * is also present, false otherwise.
+     *
+     * @return true if the graph is undirected, false otherwise
+     */
+    public boolean isUndirected(){
+        for(int v = 0; v < vertexTable.length; v++){
+            for(int k = offsets[v]; k < offsets[v+1]; k++){
+                if(!hasArc(targets[k], v)){
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Not supported, a CompactGraph cannot be changed.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public void addVertex (T vertex){
+        throw new UnsupportedOperationException("A CompactGraph cannot be changed");
+    }
+
+    /**
+     * Not supported, a CompactGraph cannot be changed.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public void removeVertex (T vertex){
+        throw new UnsupportedOperationException("A CompactGraph cannot be changed");
+    }
+
+    /**
+     * Not supported, a CompactGraph cannot be changed.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public void addArc (T vertex1, T vertex2){
+        throw new UnsupportedOperationException("A CompactGraph cannot be changed");
+    }
+
+    /**
+     * Not supported, a CompactGraph cannot be changed.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public void removeArc (T vertex1, T vertex2){
+        throw new UnsupportedOperationException("A CompactGraph cannot be changed");
+    }
+
+    /**
+     * Not supported, a CompactGraph cannot be changed.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public void addEdge (T vertex1, T vertex2){
+        throw new UnsupportedOperationException("A CompactGraph cannot be changed");
+    }
+
+    /**
+     * Not supported, a CompactGraph cannot be changed.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public void removeEdge (T vertex1, T vertex2){
+        throw new UnsupportedOperationException("A CompactGraph cannot be changed");
+    }
+
+    /**
+     * Return all the vertices adjacent to the given vertex.
+     * The list is a new copy, changing it does not change the graph.
+     *
+     * @param A vertex in the graph whose successors will be returned.
+     * @return LinkedList containing all the successors of the vertex,
+     * or null if the vertex is not in this graph
+     */
+    public LinkedList<T> getSuccessors(T vertex){
+        int v = getIndex(vertex);
+        if(v == -1){
+            return null;
+        }
+        LinkedList<T> successors = new LinkedList<T>();
+        for(int k = offsets[v]; k < offsets[v+1]; k++){
+            successors.add(getVertex(targets[k]));
+        }
+        return successors;
+    }
+
+    /**
+     * Return all the vertices x, in this graph, that precede a given vertex.
+     *
+     * @param A vertex in the graph whose predecessors will be returned.
+     * @return LinkedList containing all the vertices x in the graph,
+     * for which an arc exists from x to the given vertex (x -> vertex).
+     */
+    public LinkedList<T> getPredecessors(T vertex){
+        LinkedList<T> predecessors = new LinkedList<T>();
+        int v = getIndex(vertex);
+        if(v == -1){
+            return predecessors;
+        }
+        buildReverse();
+        int last = -1;
+        for(int k = inOffsets[v]; k < inOffsets[v+1]; k++){
+            //sources are in increasing order, so parallel arcs are next to each other
+            if(inTargets[k] != last){
+                predecessors.add(getVertex(inTargets[k]));
+                last = inTargets[k];
+            }
+        }
+        return predecessors;
+    }
+
+    /**
+     * Builds the index of the vertices, if it has not been built yet.
+     *
+     * @return the index
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized Hashtable<T,Integer> buildIndex(){
+        if(index == null){
+            Hashtable<T,Integer> map = new Hashtable<T,Integer>(Math.max(16, vertexTable.length * 2));
+            for(int v = 0; v < vertexTable.length; v++){
+                map.put((T) vertexTable[v], v);
+            }
+            index = map;
+        }
+        return index;
+    }
+
+    /**
+     * Builds the reverse adjacency (predecessor) arrays, if they have not been built yet.
+     * The predecessors of each vertex end up in increasing index order.
+     */
+    private synchronized void buildReverse(){
+        if(inOffsets != null){
+            return;
+        }
+        int n = vertexTable.length;
+        int[] inOff = new int[n+1];
+        for(int k = 0; k < targets.length; k++){
+            inOff[targets[k]+1]++;
+        }
+        for(int v = 0; v < n; v++){
+            inOff[v+1] += inOff[v];
+        }
+        int[] fill = new int[n];
+        int[] inTarg = new int[targets.length];
+        for(int v = 0; v < n; v++){
+            for(int k = offsets[v]; k < offsets[v+1]; k++){
+                int w = targets[k];
+                inTarg[inOff[w] + fill[w]] = v;
+                fill[w]++;
+            }
+        }
+        inTargets = inTarg;
+        inOffsets = inOff; //written last, it is the flag checked above
+    }
+
+    /**
+     * returns the path of the breadth first traversal in the graph from given vertex
+     *
+     * @param the vertex from which the breadth first traversal should begin
+     * @return the vertices in the order they were visited, empty if the vertex
+     * is not in this graph
+     */
+    public LinkedList<T> BFS(T vertex){
+        int s = getIndex(vertex);
+        if(s == -1){
+            return new LinkedList<T>();
+        }
+        TraversalEngine engine = getTraversalEngine();
+        try{
+            engine.bfs(s);
+            return orderOf(engine);
+        }finally{
+            release(engine);
+        }
+    }
+
+    /**
+     * returns the path of the depth first traversal in the graph from given vertex
+     *
+     * @param the vertex from which the depth first traversal should begin
+     * @return the vertices in the order they were visited, null if the vertex
+     * is not in this graph
+     */
+    public LinkedList<T> DFS(T vertex){
+        int s = getIndex(vertex);
+        if(s == -1){
+            return null;
+        }
+        TraversalEngine engine = getTraversalEngine();
+        try{
+            engine.dfs(s);
+            return orderOf(engine);
+        }finally{
+            release(engine);
+        }
+    }
+
+    /**
+     * Returns the vertices visited by the last traversal of the engine, in order.
+     */
+    private LinkedList<T> orderOf(TraversalEngine engine){
+        LinkedList<T> iter = new LinkedList<T>();
+        for(int i = 0; i < engine.getVisitedCount(); i++){
+            iter.add(getVertex(engine.getOrder(i)));
+        }
+        return iter;
+    }
+
+    /**
+     * Returns a string representation of this graph.
+     *
+     * @return a string represenation of this graph, containing its vertices
+     * and its arcs/edges
+     */
+    public String toString(){
+        StringBuilder s = new StringBuilder();
+        s.append("This graph contains ").append(vertexTable.length).append(" vertices");
+        s.append("\n Vertices: ").append(java.util.Arrays.toString(vertexTable));
+        for(int v = 0; v < vertexTable.length; v++){
+            s.append("\n From ").append(vertexTable[v]).append(":[");
+            for(int k = offsets[v]; k < offsets[v+1]; k++){
+                if(k > offsets[v]){
+                    s.append(", ");
+                }
+                s.append(vertexTable[targets[k]]);
+            }
+            s.append("]");
+        }
+        return s.toString();
+    }
+
+    /**
+     * Writes this graph into a file in the TGF format.
+     *
+     * @param the name of the file where this graph will be written
+     * in the TGF format.
+     */
+    public void saveToTGF(String tgf_file_name){
+        try{
+            new GraphExporter<T>(this).export(tgf_file_name, GraphExporter.Format.TGF);
+        }
+        catch(IOException e){
+            System.out.println(e);
+        }
+    }
+}
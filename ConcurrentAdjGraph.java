@@ -0,0 +1,610 @@
+/**
+ * A graph that many threads can build and read at the same time.
+ *
+ * Vertices are found through a ConcurrentHashMap and get an id the first
+ * time they are added; ids are never reused, so a removed vertex only
+ * leaves a gap. Every vertex keeps its successors and predecessors as
+ * growable int arrays of vertex ids. A writer takes the lock of the vertex
+ * whose list it changes, one of a fixed set of striped locks, so writers of
+ * different vertices do not wait for each other. Adding an arc holds the
+ * locks of both its ends, always taken in stripe order, so that a vertex
+ * cannot be removed halfway through. Readers take no lock at all: a list is published by writing
+ * its array and then its size to volatile fields, so a reader that reads
+ * the size first always finds the array at least that long.
+ *
+ * Readers see every change finished before they started and may or may not
+ * see changes made while they are reading. Removing an arc leaves -1 in its
+ * place in the lists, and removing a vertex marks it removed; readers skip
+ * both.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Hashtable;
+import java.util.LinkedList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+public class ConcurrentAdjGraph<T> implements Graph<T>
+{
+    // number of locks the vertices are spread over, a power of two
+    private static final int STRIPES = 64;
+
+    /**
+     * A list of vertex ids that one writer at a time appends to while
+     * readers go through it.
+     */
+    private static class IdList
+    {
+        private volatile int[] ids = new int[4];
+        private volatile int size;
+
+        /**
+         * Appends an id. Called with the lock of the vertex held.
+         */
+        void add(int id){
+            int n = size;
+            int[] a = ids;
+            if(n == a.length){
+                a = Arrays.copyOf(a, n * 2);
+                a[n] = id;
+                ids = a; // the array before the size
+            }else{
+                a[n] = id;
+            }
+            size = n + 1;
+        }
+
+        /**
+         * Replaces the first occurrence of an id with -1. Called with the lock of the vertex held.
+         *
+         * @return true if the id was there
+         */
+        boolean remove(int id){
+            int n = size;
+            int[] a = ids;
+            for(int i = 0; i < n; i++){
+                if(a[i] == id){
+                    a[i] = -1;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A vertex and its lists.
+     */
+    private static class Slot<T>
+    {
+        final T vertex;
+        final IdList out = new IdList();
+        final IdList in = new IdList();
+        volatile boolean removed;
+
+        Slot(T vertex)
+        {
+            this.vertex = vertex;
+        }
+    }
+
+    // instance variables
+    private final ConcurrentHashMap<T,Integer> index = new ConcurrentHashMap<T,Integer>();
+    private volatile Slot<T>[] slots; // id -> vertex, replaced when it grows
+    private volatile int numIds; // ids handed out so far
+    private final Object growLock = new Object();
+    private final Object[] locks = new Object[STRIPES];
+    private final AtomicInteger numVertices = new AtomicInteger();
+    private final AtomicInteger numArcs = new AtomicInteger();
+
+    /**
+     * Constructor for objects of class ConcurrentAdjGraph
+     */
+    public ConcurrentAdjGraph()
+    {
+        this(16);
+    }
+
+    /**
+     * Constructor for objects of class ConcurrentAdjGraph with room for
+     * the given number of vertices
+     *
+     * @param the number of vertices expected
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentAdjGraph(int expectedVertices)
+    {
+        slots = (Slot<T>[]) new Slot<?>[Math.max(expectedVertices, 16)];
+        for(int i = 0; i < STRIPES; i++){
+            locks[i] = new Object();
+        }
+    }
+
+    private Object lockOf(int id){
+        return locks[id & (STRIPES - 1)];
+    }
+
+    /**
+     * Returns the id of the given vertex.
+     *
+     * @param the vertex to look up
+     * @return the id of the vertex, or -1 if it is not in this graph
+     */
+    public int getIndex(T vertex){
+        if(vertex == null){
+            return -1;
+        }
+        Integer id = index.get(vertex);
+        return (id == null) ? -1 : id.intValue();
+    }
+
+    /**
+     * Returns the vertex with the given id.
+     *
+     * @param the id of a vertex
+     * @return the vertex, null if there is no vertex with that id or it was removed
+     */
+    public T getVertex(int id){
+        Slot<T> slot = slot(id);
+        return (slot == null || slot.removed) ? null : slot.vertex;
+    }
+
+    private Slot<T> slot(int id){
+        int n = numIds; // the count before the array
+        Slot<T>[] s = slots;
+        return (id < 0 || id >= n) ? null : s[id];
+    }
+
+    /**
+     * Returns a boolean indicating whether this graph is empty or not.
+     *
+     * @return true if this graph is empty, false otherwise.
+     */
+    public boolean isEmpty(){
+        return numVertices.get() == 0;
+    }
+
+    /**
+     * Returns the number of vertices in this graph.
+     *
+     * @return the number of vertices in this graph
+     */
+    public int getNumVertices(){
+        return numVertices.get();
+    }
+
+    /**
+     * Returns the number of arcs in this graph.
+     *
+     * @return the number of arcs in this graph
+     */
+    public int getNumArcs(){
+        return numArcs.get();
+    }
+
+    /**
+     * Adds the given vertex to this graph. If the given vertex already
+     * exists, the graph does not change.
+     *
+     * @param The vertex to be added to this graph
+     */
+    public void addVertex (T vertex){
+        if(index.containsKey(vertex)){
+            return;
+        }
+        synchronized(growLock){
+            if(index.containsKey(vertex)){ // added by another thread meanwhile
+                return;
+            }
+            int id = numIds;
+            Slot<T>[] s = slots;
+            if(id == s.length){
+                s = Arrays.copyOf(s, id * 2);
+            }
+            s[id] = new Slot<T>(vertex);
+            slots = s; // the array before the count
+            numIds = id + 1;
+            numVertices.incrementAndGet();
+            index.put(vertex, id);
+        }
+    }
+
+    /**
+     * Removes the given vertex, and the arcs to and from it, from this graph.
+     * If the given vertex does not exist, the graph does not change.
+     *
+     * @param the vertex to be removed from this graph
+     */
+    public void removeVertex (T vertex){
+        Integer boxed = index.remove(vertex);
+        if(boxed == null){
+            return;
+        }
+        int id = boxed;
+        Slot<T> slot = slot(id);
+        numVertices.decrementAndGet();
+        //once it is marked under its lock, no arc to or from it is added or removed
+        //through it, so its lists stay as they are while they are cleaned up
+        int removedArcs = 0;
+        synchronized(lockOf(id)){
+            slot.removed = true;
+            int n = slot.out.size;
+            int[] a = slot.out.ids;
+            for(int i = 0; i < n; i++){
+                if(a[i] != -1){
+                    removedArcs++;
+                }
+            }
+        }
+        forEach(slot.out, succ -> {
+            Slot<T> s = slot(succ);
+            synchronized(lockOf(succ)){
+                while(s.in.remove(id));
+            }
+        });
+        forEach(slot.in, pred -> {
+            if(pred != id){
+                Slot<T> s = slot(pred);
+                synchronized(lockOf(pred)){
+                    while(s.out.remove(id)){
+                        numArcs.decrementAndGet();
+                    }
+                }
+            }
+        });
+        numArcs.addAndGet(-removedArcs);
+    }
+
+    /**
+     * Inserts an arc between two given vertices of this graph. If at least
+     * one of the vertices does not exist, the graph is not changed.
+     *
+     * @param the origin of the arc to be added to this graph
+     * @param the destination of the arc to be added to this graph
+     */
+    public void addArc (T vertex1, T vertex2){
+        int id1 = getIndex(vertex1);
+        int id2 = getIndex(vertex2);
+        if(id1 != -1 && id2 != -1){
+            addArcAt(id1, id2);
+        }
+    }
+
+    /**
+     * Inserts an arc between the vertices with two given ids.
+     *
+     * @param the id of the origin of the arc
+     * @param the id of the destination of the arc
+     */
+    public void addArcAt (int id1, int id2){
+        Slot<T> from = slot(id1);
+        Slot<T> to = slot(id2);
+        if(from == null || to == null){
+            return;
+        }
+        int first = Math.min(id1 & (STRIPES - 1), id2 & (STRIPES - 1));
+        int second = Math.max(id1 & (STRIPES - 1), id2 & (STRIPES - 1));
+        synchronized(locks[first]){
+            synchronized(locks[second]){
+                //checked under the locks, removeVertex marks a vertex under its own
+                if(from.removed || to.removed){
+                    return;
+                }
+                from.out.add(id2);
+                to.in.add(id1);
+                numArcs.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns true if an arc exists from the first vertex to the second.
+     *
+     * @return true if an arc exists from vertex1 to vertex2, false otherwise
+     */
+    public boolean isArc (T vertex1, T vertex2){
+        int id1 = getIndex(vertex1);
+        int id2 = getIndex(vertex2);
+        if(id1 == -1 || id2 == -1){
+            return false;
+        }
+        IdList out = slot(id1).out;
+        int n = out.size;
+        int[] a = out.ids;
+        for(int i = 0; i < n; i++){
+            if(a[i] == id2){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the arc between two given vertices of this graph. If one of
+     * the two vertices does not exist in the graph, the graph does not change.
+     *
+     * @param the origin of the arc to be removed from this graph
+     * @param the destination of the arc to be removed from this graph
+     */
+    public void removeArc (T vertex1, T vertex2){
+        int id1 = getIndex(vertex1);
+        int id2 = getIndex(vertex2);
+        if(id1 == -1 || id2 == -1){
+            return;
+        }
+        boolean removed;
+        synchronized(lockOf(id1)){
+            //the arcs of a removed vertex are counted and cleaned up by removeVertex
+            removed = !slot(id1).removed && slot(id1).out.remove(id2);
+        }
+        if(removed){
+            synchronized(lockOf(id2)){
+                slot(id2).in.remove(id1);
+            }
+            numArcs.decrementAndGet();
+        }
+    }
+
+    /**
+     * Inserts the edge between the two given vertices of this graph,
+     * if both vertices exist, else the graph is not changed.
+     *
+     * @param the origin of the edge to be added to this graph
+     * @param the destination of the edge to be added to this graph
+     */
+    public void addEdge (T vertex1, T vertex2){
+        addArc(vertex1, vertex2);
+        addArc(vertex2, vertex1);
+    }
+
+    /**
+     * Removes the edge between the two given vertices of this graph,
+     * if both vertices exist, else the graph is not changed.
+     *
+     * @param the origin of the edge to be removed from this graph
+     * @param the destination of the edge to be removed from this graph
+     */
+    public void removeEdge (T vertex1, T vertex2){
+        removeArc(vertex1, vertex2);
+        removeArc(vertex2, vertex1);
+    }
+
+    /**
+     * Returns true if an edge exists between two given vertices.
+     *
+     * @return true if an edge exists between vertex1 and vertex2, false otherwise
+     */
+    public boolean isEdge (T vertex1, T vertex2){
+        return isArc(vertex1, vertex2) && isArc(vertex2, vertex1);
+    }
+
+    /**
+     * Returns true if for every arc of this graph the opposite arc is also present.
+     *
+     * @return true if the graph is undirected, false otherwise
+     */
+    public boolean isUndirected(){
+        int n = numIds;
+        for(int id = 0; id < n; id++){
+            T vertex = getVertex(id);
+            if(vertex == null){
+                continue;
+            }
+            for(T succ : getSuccessors(vertex)){
+                if(!isArc(succ, vertex)){
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the vertices this graph has arcs to from the given vertex.
+     * The list is a copy; later changes to the graph do not affect it.
+     *
+     * @param A vertex in the graph whose successors will be returned.
+     * @return LinkedList of the successors, empty if the vertex is not in the graph
+     */
+    public LinkedList<T> getSuccessors(T vertex){
+        int id = getIndex(vertex);
+        return (id == -1) ? new LinkedList<T>() : vertices(slot(id).out);
+    }
+
+    /**
+     * Returns the vertices of this graph that have arcs to the given vertex.
+     * The list is a copy; later changes to the graph do not affect it.
+     *
+     * @param A vertex in the graph whose predecessors will be returned.
+     * @return LinkedList of the predecessors, empty if the vertex is not in the graph
+     */
+    public LinkedList<T> getPredecessors(T vertex){
+        int id = getIndex(vertex);
+        return (id == -1) ? new LinkedList<T>() : vertices(slot(id).in);
+    }
+
+    /**
+     * Returns the number of successors of a vertex.
+     *
+     * @param a vertex
+     * @return its out-degree, 0 if it is not in the graph
+     */
+    public int getOutDegree(T vertex){
+        int id = getIndex(vertex);
+        return (id == -1) ? 0 : live(slot(id).out);
+    }
+
+    /**
+     * Returns the number of predecessors of a vertex.
+     *
+     * @param a vertex
+     * @return its in-degree, 0 if it is not in the graph
+     */
+    public int getInDegree(T vertex){
+        int id = getIndex(vertex);
+        return (id == -1) ? 0 : live(slot(id).in);
+    }
+
+    private LinkedList<T> vertices(IdList list){
+        LinkedList<T> result = new LinkedList<T>();
+        forEach(list, id -> {
+            T v = getVertex(id);
+            if(v != null){
+                result.add(v);
+            }
+        });
+        return result;
+    }
+
+    private int live(IdList list){
+        int n = list.size;
+        int[] a = list.ids;
+        int count = 0;
+        for(int i = 0; i < n; i++){
+            if(a[i] != -1 && !slot(a[i]).removed){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void forEach(IdList list, java.util.function.IntConsumer action){
+        int n = list.size; // the size before the array
+        int[] a = list.ids;
+        for(int i = 0; i < n; i++){
+            if(a[i] != -1){
+                action.accept(a[i]);
+            }
+        }
+    }
+
+    /**
+     * Builds an immutable, compact copy of this graph, with the vertices
+     * renumbered without gaps in the order they were added. Changes made
+     * while the copy is built may or may not be in it.
+     *
+     * @return a CompactGraph with the same vertices and arcs as this graph
+     */
+    public CompactGraph<T> freeze(){
+        int n = numIds;
+        int[] dense = new int[n];
+        int live = 0;
+        for(int id = 0; id < n; id++){
+            dense[id] = slot(id).removed ? -1 : live++;
+        }
+        Object[] table = new Object[live];
+        Hashtable<T,Integer> denseIndex = new Hashtable<T,Integer>(live * 4 / 3 + 1);
+        int[] offsets = new int[live + 1];
+        int[] targets = new int[16];
+        int m = 0;
+        for(int id = 0; id < n; id++){
+            int v = dense[id];
+            if(v == -1){
+                continue;
+            }
+            Slot<T> slot = slot(id);
+            table[v] = slot.vertex;
+            denseIndex.put(slot.vertex, v);
+            IdList out = slot.out;
+            int size = out.size;
+            int[] a = out.ids;
+            for(int i = 0; i < size; i++){
+                if(a[i] != -1 && a[i] < n && dense[a[i]] != -1){
+                    if(m == targets.length){
+                        targets = Arrays.copyOf(targets, m * 2);
+                    }
+                    targets[m++] = dense[a[i]];
+                }
+            }
+            offsets[v+1] = m;
+        }
+        return new CompactGraph<T>(table, denseIndex, offsets, Arrays.copyOf(targets, m));
+    }
+
+    /**
+     * Returns a string representation of this graph.
+     *
+     * @return a string represenation of this graph, containing its vertices
+     * and its arcs/edges
+     */
+    public String toString(){
+        return freeze().toString();
+    }
+
+    /**
+     * Writes this graph into a file in the TGF format.
+     *
+     * @param the name of the file where this graph will be written
+     * in the TGF format.
+     */
+    public void saveToTGF(String tgf_file_name){
+        try{
+            new GraphExporter<T>(freeze()).export(tgf_file_name, GraphExporter.Format.TGF);
+        }catch(IOException e){
+            System.out.println(e);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("*****TESTING*****");
+        ConcurrentAdjGraph<String> g = new ConcurrentAdjGraph<String>();
+        g.addVertex("A");
+        g.addVertex("B");
+        g.addVertex("C");
+        g.addEdge("A","B");
+        g.addArc("B","C");
+        System.out.println("isEdge(A,B) expecting: true result: " + g.isEdge("A","B"));
+        System.out.println("getPredecessors(C) expecting: [B] result: " + g.getPredecessors("C"));
+        g.removeVertex("B");
+        System.out.println("after removeVertex(B), arcs expecting: 0 result: " + g.getNumArcs());
+        System.out.println("getSuccessors(A) expecting: [] result: " + g.getSuccessors("A"));
+
+        //several threads add accounts and their stories at the same time
+        ConcurrentAdjGraph<String> rat = new ConcurrentAdjGraph<String>();
+        int threads = 4;
+        int usersPerThread = 5000;
+        Thread[] workers = new Thread[threads];
+        for(int t = 0; t < threads; t++){
+            int first = t * usersPerThread;
+            workers[t] = new Thread(() -> {
+                for(int u = first; u < first + usersPerThread; u++){
+                    String user = "user" + u;
+                    rat.addVertex(user);
+                    for(int s = 0; s < 5; s++){
+                        String story = "story" + ((u * 7 + s * 13) % 1000);
+                        rat.addVertex(story);
+                        rat.addEdge(user, story);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for(Thread w : workers){
+            w.join();
+        }
+        System.out.println("vertices expecting: " + (threads * usersPerThread + 1000) + " result: " + rat.getNumVertices());
+        System.out.println("arcs expecting: " + (threads * usersPerThread * 10) + " result: " + rat.getNumArcs());
+        CompactGraph<String> frozen = rat.freeze();
+        System.out.println("frozen arcs expecting: " + rat.getNumArcs() + " result: " + frozen.getNumArcs());
+        System.out.println("undirected expecting: true result: " + rat.isUndirected());
+
+        //stories are removed while arcs to them are still being added
+        Thread remover = new Thread(() -> {
+            for(int s = 0; s < 1000; s += 2){
+                rat.removeVertex("story" + s);
+            }
+        });
+        Thread adder = new Thread(() -> {
+            for(int i = 0; i < 20000; i++){
+                rat.addEdge("user" + i, "story" + (i % 1000));
+            }
+        });
+        remover.start();
+        adder.start();
+        remover.join();
+        adder.join();
+        System.out.println("arcs after removing while adding expecting: " + rat.freeze().getNumArcs() + " result: " + rat.getNumArcs());
+    }
+}
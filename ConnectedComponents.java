@@ -0,0 +1,112 @@
+/**
+ * The connected components of a CompactGraph, found in a single pass over
+ * its arcs with a union-find structure. Arcs are treated as undirected, so
+ * for a directed graph these are its weakly connected components.
+ * Components are numbered 0 .. getNumComponents()-1 in the order their
+ * first vertex appears in the graph.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.util.LinkedList;
+public class ConnectedComponents
+{
+    // instance variables
+    private final int[] label; // component of every vertex
+    private final int[] sizes; // number of vertices in every component
+    private final int largest; // the component with the most vertices
+
+    /**
+     * Constructor for objects of class ConnectedComponents
+     *
+     * @param the graph whose components are computed
+     */
+    public ConnectedComponents(CompactGraph<?> g)
+    {
+        int n = g.getNumVertices();
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        UnionFind sets = new UnionFind(n);
+        for(int v = 0; v < n; v++){
+            for(int k = offsets[v]; k < offsets[v+1]; k++){
+                sets.union(v, targets[k]);
+            }
+        }
+        //number the components by their roots
+        label = new int[n];
+        int[] idOfRoot = new int[n];
+        java.util.Arrays.fill(idOfRoot, -1);
+        sizes = new int[sets.getNumSets()];
+        int next = 0;
+        int big = -1;
+        for(int v = 0; v < n; v++){
+            int root = sets.find(v);
+            if(idOfRoot[root] == -1){
+                idOfRoot[root] = next++;
+            }
+            int c = idOfRoot[root];
+            label[v] = c;
+            sizes[c]++;
+            if(big == -1 || sizes[c] > sizes[big]){
+                big = c;
+            }
+        }
+        largest = big;
+    }
+
+    /**
+     * Returns the number of components.
+     *
+     * @return the number of connected components
+     */
+    public int getNumComponents(){
+        return sizes.length;
+    }
+
+    /**
+     * Returns the component of the vertex with the given index.
+     *
+     * @param the index of a vertex
+     * @return the id of its component
+     */
+    public int getComponent(int v){
+        return label[v];
+    }
+
+    /**
+     * Returns the number of vertices in a component.
+     *
+     * @param the id of a component
+     * @return its size
+     */
+    public int getSize(int c){
+        return sizes[c];
+    }
+
+    /**
+     * Returns the component with the most vertices. Ties go to the
+     * component found first.
+     *
+     * @return the id of the largest component, -1 for an empty graph
+     */
+    public int getLargest(){
+        return largest;
+    }
+
+    /**
+     * Returns the vertices of a component, in index order.
+     *
+     * @param the id of a component
+     * @return the indices of its vertices
+     */
+    public int[] getMembers(int c){
+        int[] members = new int[sizes[c]];
+        int k = 0;
+        for(int v = 0; v < label.length; v++){
+            if(label[v] == c){
+                members[k++] = v;
+            }
+        }
+        return members;
+    }
+}
@@ -0,0 +1,258 @@
+/**
+ * An AdjListsGraph that keeps track of its connected components while it
+ * is being built. Every arc that is added merges the components of its two
+ * ends in a union-find structure, so sameComponent, componentSize and the
+ * size of the largest component are answered in nearly constant time,
+ * without traversing the graph. Arcs are treated as undirected.
+ *
+ * A union-find structure cannot split components, so removing an arc or a
+ * vertex only marks the structure out of date and schedules a rebuild on a
+ * background thread. A query that comes before the rebuild has run does the
+ * rebuild itself.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.util.LinkedList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+public class ConnectedGraph<T> extends AdjListsGraph<T>
+{
+    // one daemon thread does the background rebuilds of all the graphs
+    private static final ExecutorService REBUILDER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ConnectedGraph rebuilder");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // instance variables
+    private UnionFind sets; // element i is the vertex at index i
+    private boolean dirty; // true after a removal, until the next rebuild
+    private boolean rebuildScheduled;
+
+    /**
+     * Constructor for objects of class ConnectedGraph
+     */
+    public ConnectedGraph()
+    {
+        this(false);
+    }
+
+    /**
+     * Constructor for objects of class ConnectedGraph
+     *
+     * @param true to keep track of the predecessors of every vertex
+     */
+    public ConnectedGraph(boolean trackPredecessors)
+    {
+        super(trackPredecessors);
+        sets = new UnionFind(0);
+    }
+
+    /**
+     * Adds the given vertex to this graph, in a component of its own.
+     * If the given vertex already exists, the graph does not change
+     *
+     * @param The vertex to be added to this graph
+     */
+    public synchronized void addVertex (T vertex){
+        int before = getNumVertices();
+        super.addVertex(vertex);
+        if(!dirty && getNumVertices() > before){
+            sets.add();
+        }
+    }
+
+    /**
+     * Removes the given vertex from this graph, and schedules a rebuild
+     * of the components.
+     *
+     * @param the vertex to be removed from this graph
+     */
+    public synchronized void removeVertex (T vertex){
+        if(containsVertex(vertex)){
+            super.removeVertex(vertex);
+            markDirty();
+        }
+    }
+
+    /**
+     * Inserts an arc between two given vertices of this graph, and merges
+     * their components. If at least one of the vertices does not exist,
+     * the graph is not changed.
+     *
+     * @param the origin of the arc to be added to this graph
+     * @param the destination of the arc to be added to this graph
+     */
+    public synchronized void addArc (T vertex1, T vertex2){
+        int index1 = getIndex(vertex1);
+        int index2 = getIndex(vertex2);
+        if(index1 != -1 && index2 != -1){
+            super.addArc(vertex1, vertex2);
+            if(!dirty){
+                sets.union(index1, index2);
+            }
+        }
+    }
+
+    /**
+     * Inserts an arc between the vertices at two given indices, and merges
+     * their components.
+     *
+     * @param the index of the origin of the arc
+     * @param the index of the destination of the arc
+     */
+    synchronized void addArcAt (int index1, int index2){
+        super.addArcAt(index1, index2);
+        if(!dirty){
+            sets.union(index1, index2);
+        }
+    }
+
+    /**
+     * Removes the arc between two given vertices of this graph, and
+     * schedules a rebuild of the components.
+     *
+     * @param the origin of the arc to be removed from this graph
+     * @param the destination of the arc to be removed from this graph
+     */
+    public synchronized void removeArc (T vertex1, T vertex2){
+        if(containsVertex(vertex1) && containsVertex(vertex2)){
+            super.removeArc(vertex1, vertex2);
+            markDirty();
+        }
+    }
+
+    /**
+     * Returns true if the two given vertices are in the same connected component.
+     *
+     * @param a vertex of this graph
+     * @param another vertex of this graph
+     * @return true if they are connected, false otherwise or if one is not in this graph
+     */
+    public synchronized boolean sameComponent(T vertex1, T vertex2){
+        int index1 = getIndex(vertex1);
+        int index2 = getIndex(vertex2);
+        if(index1 == -1 || index2 == -1){
+            return false;
+        }
+        ensureUpToDate();
+        return sets.connected(index1, index2);
+    }
+
+    /**
+     * Returns the number of vertices in the component of the given vertex.
+     *
+     * @param a vertex of this graph
+     * @return the size of its component, 0 if it is not in this graph
+     */
+    public synchronized int componentSize(T vertex){
+        int index1 = getIndex(vertex);
+        if(index1 == -1){
+            return 0;
+        }
+        ensureUpToDate();
+        return sets.getSetSize(index1);
+    }
+
+    /**
+     * Returns the number of connected components of this graph.
+     *
+     * @return the number of components
+     */
+    public synchronized int getNumComponents(){
+        ensureUpToDate();
+        return sets.getNumSets();
+    }
+
+    /**
+     * Returns the number of vertices in the largest component of this graph.
+     *
+     * @return the size of the largest component, 0 for an empty graph
+     */
+    public synchronized int largestComponentSize(){
+        ensureUpToDate();
+        int root = sets.getLargestRoot();
+        return (root == -1) ? 0 : sets.getSetSize(root);
+    }
+
+    /**
+     * Returns the vertices of the largest component of this graph, in index order.
+     * Finding the component is constant time, listing it takes one pass over the vertices.
+     *
+     * @return the vertices of the largest component
+     */
+    public synchronized LinkedList<T> largestComponent(){
+        ensureUpToDate();
+        LinkedList<T> members = new LinkedList<T>();
+        int root = sets.getLargestRoot();
+        if(root == -1){
+            return members;
+        }
+        for(int i = 0; i < getNumVertices(); i++){
+            if(sets.find(i) == root){
+                members.add(getVertex(i));
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Marks the components out of date and schedules a background rebuild,
+     * unless one is already waiting to run. Called with the lock held.
+     */
+    private void markDirty(){
+        dirty = true;
+        if(!rebuildScheduled){
+            rebuildScheduled = true;
+            REBUILDER.execute(() -> {
+                synchronized(ConnectedGraph.this){
+                    rebuildScheduled = false;
+                    ensureUpToDate();
+                }
+            });
+        }
+    }
+
+    /**
+     * Rebuilds the components from the arcs of the graph if they are out of date.
+     * Called with the lock held.
+     */
+    private void ensureUpToDate(){
+        if(!dirty){
+            return;
+        }
+        int n = getNumVertices();
+        UnionFind fresh = new UnionFind(n);
+        for(int i = 0; i < n; i++){
+            for(T next : arcs.get(i)){
+                fresh.union(i, getIndex(next));
+            }
+        }
+        sets = fresh;
+        dirty = false;
+    }
+
+    public static void main(String[] args){
+        System.out.println("*****TESTING*****");
+        ConnectedGraph<String> g = new ConnectedGraph<String>();
+        g.addVertex("A");
+        g.addVertex("B");
+        g.addVertex("C");
+        g.addVertex("D");
+        g.addEdge("A","B");
+        g.addEdge("B","C");
+        System.out.println("sameComponent(A,C) expecting: true result: " + g.sameComponent("A","C"));
+        System.out.println("sameComponent(A,D) expecting: false result: " + g.sameComponent("A","D"));
+        System.out.println("componentSize(B) expecting: 3 result: " + g.componentSize("B"));
+        System.out.println("largestComponent() expecting: [A, B, C] result: " + g.largestComponent());
+        System.out.println("*****test removeEdge()*****");
+        g.removeEdge("B","C");
+        System.out.println("sameComponent(A,C) expecting: false result: " + g.sameComponent("A","C"));
+        System.out.println("getNumComponents() expecting: 3 result: " + g.getNumComponents());
+        g.removeVertex("A");
+        g.addEdge("C","D");
+        System.out.println("largestComponentSize() expecting: 2 result: " + g.largestComponentSize());
+        System.out.println("sameComponent(D,C) expecting: true result: " + g.sameComponent("D","C"));
+    }
+}
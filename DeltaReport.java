@@ -0,0 +1,179 @@
+/**
+ * What RATgraph.applyDelta changed in a graph: the users and stories that
+ * were added, the existing users whose counts or stories changed, and the
+ * existing stories that got new users. Nothing in the graph reads the
+ * report: every query is answered from the published version, which is
+ * computed again in full. The report is for callers that keep results of
+ * their own and want to know which vertices they may be stale for.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+public class DeltaReport
+{
+    // instance variables, every set in the order the changes were made
+    private final LinkedHashSet<String> addedUsers = new LinkedHashSet<String>();
+    private final LinkedHashSet<String> changedUsers = new LinkedHashSet<String>();
+    private final LinkedHashSet<String> addedStories = new LinkedHashSet<String>();
+    private final LinkedHashSet<String> changedStories = new LinkedHashSet<String>();
+    private int addedEdges;
+    private long version = -1;
+
+    /**
+     * Constructor for objects of class DeltaReport
+     */
+    public DeltaReport()
+    {
+    }
+
+    void userAdded(String user){
+        addedUsers.add(user);
+    }
+
+    void userChanged(String user){
+        changedUsers.add(user);
+    }
+
+    void storyAdded(String story){
+        addedStories.add(story);
+    }
+
+    void storyChanged(String story){
+        changedStories.add(story);
+    }
+
+    void edgeAdded(){
+        addedEdges++;
+    }
+
+    void setVersion(long version){
+        this.version = version;
+    }
+
+    /**
+     * gets the users that were not in the graph before
+     *
+     * @return LinkedList<String> - their screen names
+     */
+    public LinkedList<String> getAddedUsers(){
+        return new LinkedList<String>(addedUsers);
+    }
+
+    /**
+     * gets the users already in the graph whose id, counts or stories changed
+     *
+     * @return LinkedList<String> - their screen names
+     */
+    public LinkedList<String> getChangedUsers(){
+        return new LinkedList<String>(changedUsers);
+    }
+
+    /**
+     * gets the stories that were not in the graph before
+     *
+     * @return LinkedList<String> - their ids
+     */
+    public LinkedList<String> getAddedStories(){
+        return new LinkedList<String>(addedStories);
+    }
+
+    /**
+     * gets the stories already in the graph that got new users
+     *
+     * @return LinkedList<String> - their ids
+     */
+    public LinkedList<String> getChangedStories(){
+        return new LinkedList<String>(changedStories);
+    }
+
+    /**
+     * Returns every vertex that was added or changed, users first.
+     *
+     * @return LinkedList<String> - the vertices added or changed
+     */
+    public LinkedList<String> getChangedVertices(){
+        LinkedList<String> all = new LinkedList<String>(addedUsers);
+        all.addAll(changedUsers);
+        all.addAll(addedStories);
+        all.addAll(changedStories);
+        return all;
+    }
+
+    /**
+     * gets the number of user-story edges added
+     *
+     * @return int - the number of new edges
+     */
+    public int getAddedEdges(){
+        return addedEdges;
+    }
+
+    /**
+     * Returns the number of the graph version published with the changes.
+     *
+     * @return long - the version number, -1 if nothing changed
+     */
+    public long getVersion(){
+        return version;
+    }
+
+    /**
+     * checks whether the delta changed anything
+     *
+     * @return boolean - true if no vertex was added or changed
+     */
+    public boolean isEmpty(){
+        return addedUsers.isEmpty() && changedUsers.isEmpty() && addedStories.isEmpty() && changedStories.isEmpty();
+    }
+
+    /**
+     * Returns a string representation of the report
+     *
+     * @return String - the changes, one kind per line
+     */
+    public String toString(){
+        return "added users: " + addedUsers + "\n"
+            + "changed users: " + changedUsers + "\n"
+            + "added stories: " + addedStories + "\n"
+            + "changed stories: " + changedStories + "\n"
+            + "added edges: " + addedEdges;
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("*****TESTING*****");
+        Path base = Files.createTempFile("accounts", ".tsv");
+        Path delta = Files.createTempFile("delta", ".tsv");
+        try(PrintWriter out = new PrintWriter(Files.newBufferedWriter(base))){
+            out.println("name\tid\ttweets\tstories\tstoryIds");
+            out.println("a\t1\t10\t2\t100,101");
+            out.println("b\t2\t20\t1\t101");
+        }
+        try(PrintWriter out = new PrintWriter(Files.newBufferedWriter(delta))){
+            out.println("name\tid\ttweets\tstories\tstoryIds");
+            out.println("a\t1\t10\t2\t100,101"); // unchanged
+            out.println("b\t2\t25\t2\t101,100"); // new count and one more story
+            out.println("c\t3\t5\t1\t102"); // new account and story
+        }
+        RATgraph r = new RATgraph(base.toString());
+        long before = r.getVersions().getCurrentVersion();
+        DeltaReport report = r.applyDelta(delta);
+        System.out.println("added users expecting: [c] result: " + report.getAddedUsers());
+        System.out.println("changed users expecting: [b] result: " + report.getChangedUsers());
+        System.out.println("added stories expecting: [102] result: " + report.getAddedStories());
+        System.out.println("changed stories expecting: [100] result: " + report.getChangedStories());
+        System.out.println("added edges expecting: 2 result: " + report.getAddedEdges());
+        System.out.println("new version published expecting: true result: " + (report.getVersion() > before));
+        System.out.println("b's tweet count expecting: 25 result: " + r.getUserTable().get("b").getTweetCount());
+        System.out.println("audience of 100 expecting: 2 result: " + r.getRatInDegree("100"));
+        System.out.println("top user by tweets expecting: b result: " + r.topUsersByTweets(1).getFirst());
+        System.out.println("applying it again changes nothing expecting: true result: " + r.applyDelta(delta).isEmpty());
+        Files.delete(base);
+        Files.delete(delta);
+    }
+}
@@ -0,0 +1,281 @@
+/**
+ * Feeds a stream of share events into a RAT graph in batches. A reader
+ * thread takes events from the source and puts them in a bounded queue;
+ * when the queue is full the reader waits, so a fast source cannot run
+ * ahead of the graph and use up memory. The calling thread takes events
+ * off the queue and applies them to the graph in batches of at most
+ * batchSize events, or fewer when maxDelay has passed since the first
+ * event of the batch. An event for an edge already in the graph, or
+ * already in the batch, only adds a tweet to its account.
+ *
+ * Publishing a version freezes the whole graph, so it is not done after
+ * every batch: the batches applied are published together once
+ * publishInterval has passed since the first of them, and when the source
+ * ends. Queries see the events that late at most, and the graph is copied
+ * at most once per interval however small the batches are.
+ *
+ * When a version is published the listener, if any, gets the DeltaReport
+ * of every batch in it, with the number of the version.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+public class EventIngester
+{
+    // put in the queue by the reader when the source has ended
+    private static final ShareEvent END = new ShareEvent("", -1, -1);
+
+    // instance variables
+    private final RATgraph graph;
+    private final int batchSize;
+    private final long maxDelay; // in nanoseconds
+    private final int capacity;
+    private long publishInterval = TimeUnit.SECONDS.toNanos(1);
+    private Consumer<DeltaReport> listener;
+    private final LinkedList<DeltaReport> unpublished = new LinkedList<DeltaReport>(); // batches not published yet
+    private long publishDeadline;
+    private long numEvents;
+    private long numBatches;
+    private long numEdges;
+
+    /**
+     * Constructor for objects of class EventIngester
+     *
+     * @param the graph the events are added to
+     * @param the most events applied in one batch
+     * @param the longest time, in milliseconds, an event waits for its batch to fill up
+     * @param the most events read from the source but not yet applied
+     */
+    public EventIngester(RATgraph graph, int batchSize, long maxDelayMillis, int capacity)
+    {
+        if(batchSize < 1 || capacity < 1){
+            throw new IllegalArgumentException("batch size and capacity must be positive");
+        }
+        this.graph = graph;
+        this.batchSize = batchSize;
+        this.maxDelay = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Sets the longest time applied batches wait before they are published. The default is one second.
+     *
+     * @param the interval in milliseconds
+     */
+    public void setPublishInterval(long millis){
+        publishInterval = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Sets the action run with the report of every batch, once it is published.
+     *
+     * @param the action, null for none
+     */
+    public void setListener(Consumer<DeltaReport> listener){
+        this.listener = listener;
+    }
+
+    /**
+     * Reads events from the source and applies them to the graph until the
+     * source ends.
+     *
+     * @param the events
+     * @return long - the number of events applied
+     * @exception IOException thrown when the source cannot be read; the
+     * events read before are applied
+     * @exception InterruptedException thrown when interrupted while waiting
+     * for events; the events of the current batch are not applied, the
+     * batches applied before are published
+     */
+    public long ingest(EventSource source) throws IOException, InterruptedException {
+        BlockingQueue<ShareEvent> queue = new ArrayBlockingQueue<ShareEvent>(capacity);
+        Exception[] failure = new Exception[1];
+        Thread reader = new Thread(() -> {
+            try{
+                ShareEvent event;
+                while((event = source.next()) != null){
+                    queue.put(event); // waits while the graph catches up
+                }
+            }catch(IOException | RuntimeException e){
+                failure[0] = e;
+            }catch(InterruptedException e){
+                return; // the ingest was stopped, nobody takes from the queue any more
+            }
+            try{
+                queue.put(END);
+            }catch(InterruptedException e){
+            }
+        }, "event reader");
+        reader.setDaemon(true);
+        reader.start();
+        long applied = 0;
+        ArrayList<ShareEvent> batch = new ArrayList<ShareEvent>(batchSize);
+        long deadline = 0;
+        boolean ended = false;
+        try{
+            while(!ended){
+                ShareEvent event;
+                if(batch.isEmpty() && unpublished.isEmpty()){
+                    event = queue.take();
+                }else{
+                    //wake up for whichever comes first, the batch or the publish deadline
+                    long wait = Long.MAX_VALUE;
+                    long now = System.nanoTime();
+                    if(!batch.isEmpty()){
+                        wait = deadline - now;
+                    }
+                    if(!unpublished.isEmpty()){
+                        wait = Math.min(wait, publishDeadline - now);
+                    }
+                    event = queue.poll(wait, TimeUnit.NANOSECONDS);
+                }
+                ended = (event == END);
+                if(event != null && !ended){
+                    if(batch.isEmpty()){
+                        deadline = System.nanoTime() + maxDelay;
+                    }
+                    batch.add(event);
+                }
+                if(ended || batch.size() == batchSize || (!batch.isEmpty() && System.nanoTime() - deadline >= 0)){
+                    applied += apply(batch);
+                }
+                if(ended || (!unpublished.isEmpty() && System.nanoTime() - publishDeadline >= 0)){
+                    publish();
+                }
+            }
+        }finally{
+            if(!ended){
+                //stopped by an exception: the reader may be waiting for room in the queue
+                reader.interrupt();
+                publish();
+            }
+        }
+        reader.join();
+        if(failure[0] instanceof IOException){
+            throw (IOException) failure[0];
+        }
+        if(failure[0] != null){
+            throw (RuntimeException) failure[0];
+        }
+        return applied;
+    }
+
+    /**
+     * Applies a batch to the graph and empties it.
+     *
+     * @return the number of events applied
+     */
+    private int apply(ArrayList<ShareEvent> batch){
+        int n = batch.size();
+        if(n == 0){
+            return 0;
+        }
+        DeltaReport report = graph.applyEvents(batch);
+        batch.clear();
+        numEvents += n;
+        numBatches++;
+        numEdges += report.getAddedEdges();
+        if(unpublished.isEmpty()){
+            publishDeadline = System.nanoTime() + publishInterval;
+        }
+        unpublished.add(report);
+        return n;
+    }
+
+    /**
+     * Publishes the batches applied so far and hands their reports to the listener.
+     */
+    private void publish(){
+        if(unpublished.isEmpty()){
+            return;
+        }
+        long version = graph.publish();
+        for(DeltaReport report : unpublished){
+            report.setVersion(version);
+            if(listener != null){
+                listener.accept(report);
+            }
+        }
+        unpublished.clear();
+    }
+
+    /**
+     * gets the number of events applied since this ingester was made
+     *
+     * @return long - the number of events
+     */
+    public long getNumEvents(){
+        return numEvents;
+    }
+
+    /**
+     * gets the number of batches applied since this ingester was made
+     *
+     * @return long - the number of batches
+     */
+    public long getNumBatches(){
+        return numBatches;
+    }
+
+    /**
+     * gets the number of user-story edges the events added to the graph
+     *
+     * @return long - the number of new edges
+     */
+    public long getNumEdges(){
+        return numEdges;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("*****TESTING*****");
+        RATgraph r = RATgraph.empty("events");
+        EventIngester ingester = new EventIngester(r, 4, 50, 2);
+        EventSource.MemorySource source = new EventSource.MemorySource();
+        source.add(new ShareEvent("a", 1, 100));
+        source.add(new ShareEvent("a", 1, 100)); // same edge again
+        source.add(new ShareEvent("b", 2, 100));
+        source.add(new ShareEvent("a", 1, 101));
+        source.add(new ShareEvent("c", 3, 102));
+        Thread late = new Thread(() -> {
+            try{
+                Thread.sleep(200); // longer than the delay, so the first events are applied meanwhile
+            }catch(InterruptedException e){
+            }
+            source.add(new ShareEvent("c", 3, 100));
+            source.close();
+        });
+        late.start();
+        System.out.println("events applied expecting: 6 result: " + ingester.ingest(source));
+        System.out.println("batches expecting: 3 result: " + ingester.getNumBatches());
+        System.out.println("published once, at the end, expecting: 1 result: " + r.getVersions().getCurrentVersion());
+        System.out.println("edges expecting: 5 result: " + ingester.getNumEdges());
+        TwitterUser a = r.getUserTable().get("a");
+        System.out.println("a's tweets and stories expecting: 3 2 result: " + a.getTweetCount() + " " + a.getStoryCount());
+        System.out.println("audience of 100 expecting: 3 result: " + r.getRatInDegree("100"));
+
+        Path file = Files.createTempFile("events", ".tsv");
+        try(PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))){
+            out.println("a\t1\t103");
+            out.println("d\tnot-a-number\t103");
+            out.println("d\t4\t103");
+        }
+        StringBuilder added = new StringBuilder();
+        ingester.setListener(report -> added.append(report.getAddedUsers()));
+        try(EventSource.FileSource events = new EventSource.FileSource(file)){
+            System.out.println("events applied from file expecting: 2 result: " + ingester.ingest(events));
+        }
+        System.out.println("users added expecting: [d] result: " + added);
+        System.out.println("a's stories expecting: 3 result: " + a.getStoryCount());
+        Files.delete(file);
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * A possibly unbounded source of share events, read one at a time by an
+ * EventIngester. Two sources are provided: one reads an events file, the
+ * other hands out events given to it in memory, for tests.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public interface EventSource
+{
+    /**
+     * Returns the next event, waiting for one if none is available yet.
+     *
+     * @return the next event, null when the source has ended
+     * @exception IOException thrown when the source cannot be read
+     * @exception InterruptedException thrown when interrupted while waiting
+     */
+    public ShareEvent next() throws IOException, InterruptedException;
+
+    /**
+     * Reads events from a file with one event per line: screen name, user
+     * id and story id, separated by white space. Badly formatted lines are
+     * reported and skipped.
+     */
+    public static class FileSource implements EventSource, AutoCloseable
+    {
+        private final Path file;
+        private final BufferedReader in;
+        private int lineNumber;
+
+        /**
+         * Constructor for objects of class FileSource
+         *
+         * @param the events file
+         * @exception IOException thrown when the file cannot be opened
+         */
+        public FileSource(Path file) throws IOException
+        {
+            this.file = file;
+            in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        }
+
+        public ShareEvent next() throws IOException {
+            String line;
+            while((line = in.readLine()) != null){
+                lineNumber++;
+                String[] fields = line.trim().split("\\s+");
+                if(fields.length == 1 && fields[0].isEmpty()){
+                    continue; // blank line
+                }
+                try{
+                    if(fields.length != 3){
+                        throw new NumberFormatException();
+                    }
+                    return new ShareEvent(fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2]));
+                }catch(NumberFormatException e){
+                    System.out.println("Format error in event file " + file + ", line " + lineNumber + ": " + line);
+                    System.out.println("This event is ignored");
+                }
+            }
+            return null;
+        }
+
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Hands out events added to it, in order, until it is closed. Events
+     * can be added from any thread, also while an ingester is reading.
+     */
+    public static class MemorySource implements EventSource
+    {
+        private static final ShareEvent END = new ShareEvent("", -1, -1);
+        private final BlockingQueue<ShareEvent> events = new LinkedBlockingQueue<ShareEvent>();
+        private boolean ended;
+
+        /**
+         * Adds an event to the end of the source.
+         *
+         * @param the event
+         */
+        public void add(ShareEvent event){
+            events.add(event);
+        }
+
+        /**
+         * Ends the source once the events already added are read.
+         */
+        public void close(){
+            events.add(END);
+        }
+
+        public synchronized ShareEvent next() throws InterruptedException {
+            if(ended){
+                return null;
+            }
+            ShareEvent event = events.take();
+            if(event == END){
+                ended = true;
+                return null;
+            }
+            return event;
+        }
+    }
+}
@@ -1,81 +1,264 @@
 /**
  * GraphBuilder.java
- * 
+ *
  * @author Ben Wood
- * 
+ *
  * @version 4/11/2019
  * Stella added complete javadoc
  */
-import java.io.File;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.Scanner;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
-/* 
+/*
  * When we want to create a graph of some specific object type,
- * we need to extend this abstarct class. The child class will have to 
+ * we need to extend this abstarct class. The child class will have to
  * provide implementation for the "createOneThing()" method.
  * */
 abstract class GraphBuilder<T> {
-  
+
   /*
-   * To be overriden in the extension of this class 
+   * To be overriden in the extension of this class
    * (like the PersonGraphBuilder, for example).
-   * It will create and return an object of the specific 
+   * It will create and return an object of the specific
    * type the graph will contain, from the input string s.
-   * 
+   *
    * @param the String from which an object, of the specific type
    * the graph contains, will be created.
-   * @return the object that was created. It is of the specific type 
+   * @return the object that was created. It is of the specific type
    * the graph contains.
-   * 
+   *
    * */
   abstract T createOneThing(String s);
-  
+
   /*
    * Reads from the input .tgf file, line by line.
    * Creates the vertex objects, and adds them to the graph.
    * Then, adds the connections between the vertices.
-   * 
+   *
+   * The file is read as bytes through a buffer, and the TGF number of every
+   * vertex is mapped to its index in the graph through a primitive table,
+   * so the arcs can be added without looking the vertices up. Lines that
+   * cannot be read are reported with their line number and skipped.
+   *
    * PRECONDITION: the input file is in the TGF format
-   * 
+   *
    * @param the file name to read from
    * @return the constructed graph, based on the input TGF file.
-   * 
+   *
    * */
   public AdjListsGraph<T> build (String fileName) {
-      //create an empty graph
-     AdjListsGraph<T> g = new AdjListsGraph<T>();
+    //TGF vertex number -> index of the vertex in the graph
+    LongIntHashMap vertexIndex = new LongIntHashMap(1024);
+    //the vertices and arcs are read first, then the graph is built at its final size
+    Object[] things = new Object[64];
+    int numThings = 0;
+    int[] arcFrom = new int[256];
+    int[] arcTo = new int[256];
+    int numArcs = 0;
     //open the file for reading
-    try{ // to read from the tgf file
-      Scanner scanner = new Scanner(new File(fileName));
-      
-      //read vertices
-      while ( !scanner.next().equals("#")) {
-        String line = "";
-        //read a line as String
-        line = scanner.nextLine().trim();
+    try (TGFLines lines = new TGFLines(new FileInputStream(fileName))) { // to read from the tgf file
+
+      //read vertices, up to the # line
+      while (lines.next() && !lines.isSeparator()) {
+        if (lines.isBlank()) {
+          continue;
+        }
+        long number = lines.nextNumber();
+        if (number < 0) {
+          report(fileName, lines, "expected a vertex number");
+          continue;
+        }
         //create an object of the specific type the graph contains,
-        //based on the read string
-        T thing = createOneThing(line);
-        //add that object to the graph as a new vertex
-        g.addVertex(thing); 
+        //based on the rest of the line
+        T thing = createOneThing(lines.rest());
+        if (numThings == things.length) {
+          things = Arrays.copyOf(things, numThings * 2);
+        }
+        vertexIndex.put(number, numThings);
+        things[numThings++] = thing;
       }
-      
-      //read arcs
-      while (scanner.hasNext()){
-          //read from to vertices, in one line as integers
-        int from = scanner.nextInt();
-        int to = scanner.nextInt();
-        g.addArc(from, to);
+
+      //read arcs, one "from to" pair of vertex numbers per line
+      while (lines.next()) {
+        if (lines.isBlank()) {
+          continue;
+        }
+        long from = lines.nextNumber();
+        long to = lines.nextNumber();
+        if (from < 0 || to < 0) {
+          report(fileName, lines, "expected two vertex numbers");
+          continue;
+        }
+        int fromThing = vertexIndex.get(from);
+        int toThing = vertexIndex.get(to);
+        if (fromThing == -1 || toThing == -1) {
+          report(fileName, lines, "unknown vertex number " + (fromThing == -1 ? from : to));
+          continue;
+        }
+        if (numArcs == arcFrom.length) {
+          arcFrom = Arrays.copyOf(arcFrom, numArcs * 2);
+          arcTo = Arrays.copyOf(arcTo, numArcs * 2);
+        }
+        arcFrom[numArcs] = fromThing;
+        arcTo[numArcs] = toThing;
+        numArcs++;
       }
-      
-      scanner.close();
     } catch (IOException ex) {
       System.out.println(fileName + " ***ERROR*** The file was not found: " + ex);
     }
-    
+
+    //create an empty graph with room for all the vertices
+    AdjListsGraph<T> g = new AdjListsGraph<T>(false, numThings);
+    //position of every vertex read in the graph; two TGF numbers
+    //whose objects are equal end up as one vertex
+    int[] position = new int[numThings];
+    for (int i = 0; i < numThings; i++) {
+      @SuppressWarnings("unchecked")
+      T thing = (T) things[i];
+      g.addVertex(thing);
+      position[i] = g.getIndex(thing);
+    }
+    for (int i = 0; i < numArcs; i++) {
+      g.addArcAt(position[arcFrom[i]], position[arcTo[i]]);
+    }
     return g;
-    
+
+  }
+
+  /*
+   * Prints a message about a line of the input file that was skipped.
+   */
+  private static void report(String fileName, TGFLines lines, String problem) {
+    System.out.println(fileName + " line " + lines.getLineNumber() + ": " + problem
+                         + ", line ignored: " + lines.text());
+  }
+
+  /*
+   * Reads a file one line at a time as raw bytes, and parses the
+   * numbers at the start of a line without creating Strings.
+   * */
+  private static class TGFLines implements AutoCloseable {
+    private final InputStream in;
+    private final byte[] buffer = new byte[1 << 16];
+    private int bufferPos;
+    private int bufferEnd;
+    private byte[] line = new byte[256];
+    private int length; // length of the current line
+    private int pos; // parsing position in the current line
+    private int lineNumber;
+
+    TGFLines(InputStream in) {
+      this.in = new BufferedInputStream(in, 1 << 16);
+    }
+
+    /*
+     * Moves to the next line.
+     *
+     * @return false at the end of the file
+     */
+    boolean next() throws IOException {
+      length = 0;
+      pos = 0;
+      boolean any = false;
+      while (true) {
+        if (bufferPos == bufferEnd) {
+          bufferEnd = in.read(buffer);
+          bufferPos = 0;
+          if (bufferEnd <= 0) {
+            bufferEnd = 0;
+            break;
+          }
+        }
+        byte b = buffer[bufferPos++];
+        any = true;
+        if (b == '\n') {
+          break;
+        }
+        if (b != '\r') {
+          if (length == line.length) {
+            line = Arrays.copyOf(line, length * 2);
+          }
+          line[length++] = b;
+        }
+      }
+      if (any) {
+        lineNumber++;
+      }
+      return any;
+    }
+
+    int getLineNumber() {
+      return lineNumber;
+    }
+
+    boolean isBlank() {
+      for (int i = 0; i < length; i++) {
+        if (line[i] != ' ' && line[i] != '\t') {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /*
+     * Returns true if the current line is the # line between vertices and arcs.
+     */
+    boolean isSeparator() {
+      skipSpaces();
+      return pos < length && line[pos] == '#';
+    }
+
+    /*
+     * Parses the next number on the line.
+     *
+     * @return the number, or -1 if there is no number at the current position
+     * or it is larger than Long.MAX_VALUE
+     */
+    long nextNumber() {
+      skipSpaces();
+      int start = pos;
+      long value = 0;
+      while (pos < length && line[pos] >= '0' && line[pos] <= '9') {
+        int digit = line[pos] - '0';
+        if (value > (Long.MAX_VALUE - digit) / 10) {
+          return -1;
+        }
+        value = value * 10 + digit;
+        pos++;
+      }
+      if (pos == start || (pos < length && line[pos] != ' ' && line[pos] != '\t')) {
+        return -1;
+      }
+      return value;
+    }
+
+    /*
+     * Returns the rest of the current line, without surrounding white space.
+     */
+    String rest() {
+      return new String(line, pos, length - pos, StandardCharsets.UTF_8).trim();
+    }
+
+    /*
+     * Returns the whole current line.
+     */
+    String text() {
+      return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void skipSpaces() {
+      while (pos < length && (line[pos] == ' ' || line[pos] == '\t')) {
+        pos++;
+      }
+    }
+
+    public void close() throws IOException {
+      in.close();
+    }
   }
-  
-}
\ No newline at end of file
+
+}
@@ -0,0 +1,313 @@
+/**
+ * Writes a graph out as text, in one of several formats:
+ *   TGF        the trivial graph format read by GraphBuilder
+ *   EDGE_LIST  one "from to" line per arc, vertices separated by a tab
+ *   DOT        a Graphviz digraph
+ *   GRAPHML    a GraphML document, with every vertex's label as node data
+ *
+ * The graph is streamed to the output through a fixed size buffer, one
+ * vertex or arc at a time, so memory use does not depend on the size of
+ * the graph. Arc ends are found through the vertex index of the graph,
+ * never by searching the vertices. Output can optionally be gzipped.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.zip.GZIPOutputStream;
+public class GraphExporter<T>
+{
+    /**
+     * The formats a graph can be written in.
+     */
+    public enum Format { TGF, EDGE_LIST, DOT, GRAPHML }
+
+    // characters buffered before they are handed to the output
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // instance variables; exactly one of the two graphs is set
+    private final AdjListsGraph<T> lists;
+    private final CompactGraph<T> compact;
+
+    /**
+     * Constructor for an exporter of a graph that is still being built.
+     *
+     * @param the graph to write
+     */
+    public GraphExporter(AdjListsGraph<T> g)
+    {
+        lists = g;
+        compact = null;
+    }
+
+    /**
+     * Constructor for an exporter of a compact graph.
+     *
+     * @param the graph to write
+     */
+    public GraphExporter(CompactGraph<T> g)
+    {
+        lists = null;
+        compact = g;
+    }
+
+    /**
+     * Writes the graph to a file. The file is gzipped if its name ends in ".gz".
+     *
+     * @param the name of the file to write
+     * @param the format to write the graph in
+     * @exception IOException thrown when the file cannot be written
+     */
+    public void export(String fileName, Format format) throws IOException {
+        try(OutputStream out = new FileOutputStream(fileName)){
+            export(out, format, fileName.endsWith(".gz"));
+        }
+    }
+
+    /**
+     * Writes the graph to a stream, as UTF-8 text. The stream is flushed
+     * but not closed.
+     *
+     * @param the stream to write to
+     * @param the format to write the graph in
+     * @param true to gzip the output
+     * @exception IOException thrown when the stream cannot be written
+     */
+    public void export(OutputStream out, Format format, boolean gzip) throws IOException {
+        if(gzip){
+            GZIPOutputStream zipped = new GZIPOutputStream(out, BUFFER_SIZE);
+            export(new OutputStreamWriter(zipped, StandardCharsets.UTF_8), format);
+            zipped.finish();
+        }else{
+            export(new OutputStreamWriter(out, StandardCharsets.UTF_8), format);
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the graph to a writer. The writer is flushed but not closed.
+     *
+     * @param the writer to write to
+     * @param the format to write the graph in
+     * @exception IOException thrown when the writer cannot be written
+     */
+    public void export(Writer out, Format format) throws IOException {
+        BufferedWriter w = new BufferedWriter(out, BUFFER_SIZE);
+        switch(format){
+            case TGF:
+                writeTGF(w);
+                break;
+            case EDGE_LIST:
+                writeEdgeList(w);
+                break;
+            case DOT:
+                writeDOT(w);
+                break;
+            case GRAPHML:
+                writeGraphML(w);
+                break;
+        }
+        w.flush();
+    }
+
+    /**
+     * Writes every vertex with its number, starting from 1, then a # line,
+     * then every arc as a pair of vertex numbers.
+     */
+    private void writeTGF(Writer w) throws IOException {
+        int n = numVertices();
+        for(int v = 0; v < n; v++){
+            w.write(Integer.toString(v + 1));
+            w.write(' ');
+            w.write(label(v));
+            w.write('\n');
+        }
+        w.write("#\n");
+        for(int v = 0; v < n; v++){
+            String from = Integer.toString(v + 1);
+            for(Iterator<Integer> it = successors(v); it.hasNext(); ){
+                w.write(from);
+                w.write(' ');
+                w.write(Integer.toString(it.next() + 1));
+                w.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Writes every arc as the labels of its two ends, separated by a tab.
+     */
+    private void writeEdgeList(Writer w) throws IOException {
+        int n = numVertices();
+        for(int v = 0; v < n; v++){
+            String from = label(v);
+            for(Iterator<Integer> it = successors(v); it.hasNext(); ){
+                w.write(from);
+                w.write('\t');
+                w.write(label(it.next()));
+                w.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Writes the graph as a Graphviz digraph, with every vertex named by its label.
+     */
+    private void writeDOT(Writer w) throws IOException {
+        int n = numVertices();
+        w.write("digraph G {\n");
+        for(int v = 0; v < n; v++){
+            w.write("  ");
+            writeQuoted(w, label(v));
+            w.write(";\n");
+        }
+        for(int v = 0; v < n; v++){
+            String from = label(v);
+            for(Iterator<Integer> it = successors(v); it.hasNext(); ){
+                w.write("  ");
+                writeQuoted(w, from);
+                w.write(" -> ");
+                writeQuoted(w, label(it.next()));
+                w.write(";\n");
+            }
+        }
+        w.write("}\n");
+    }
+
+    /**
+     * Writes the graph as a GraphML document. Vertex v has the node id "n"+v
+     * and its label as the data of the "label" key.
+     */
+    private void writeGraphML(Writer w) throws IOException {
+        int n = numVertices();
+        w.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        w.write("<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n");
+        w.write("  <key id=\"label\" for=\"node\" attr.name=\"label\" attr.type=\"string\"/>\n");
+        w.write("  <graph id=\"G\" edgedefault=\"directed\">\n");
+        for(int v = 0; v < n; v++){
+            w.write("    <node id=\"n");
+            w.write(Integer.toString(v));
+            w.write("\"><data key=\"label\">");
+            writeEscaped(w, label(v));
+            w.write("</data></node>\n");
+        }
+        for(int v = 0; v < n; v++){
+            String from = Integer.toString(v);
+            for(Iterator<Integer> it = successors(v); it.hasNext(); ){
+                w.write("    <edge source=\"n");
+                w.write(from);
+                w.write("\" target=\"n");
+                w.write(Integer.toString(it.next()));
+                w.write("\"/>\n");
+            }
+        }
+        w.write("  </graph>\n");
+        w.write("</graphml>\n");
+    }
+
+    /**
+     * Writes a DOT string in double quotes.
+     */
+    private static void writeQuoted(Writer w, String s) throws IOException {
+        w.write('"');
+        for(int i = 0; i < s.length(); i++){
+            char c = s.charAt(i);
+            if(c == '"' || c == '\\'){
+                w.write('\\');
+            }
+            w.write(c);
+        }
+        w.write('"');
+    }
+
+    /**
+     * Writes text with the characters that are special in XML escaped.
+     */
+    private static void writeEscaped(Writer w, String s) throws IOException {
+        for(int i = 0; i < s.length(); i++){
+            char c = s.charAt(i);
+            switch(c){
+                case '<': w.write("&lt;"); break;
+                case '>': w.write("&gt;"); break;
+                case '&': w.write("&amp;"); break;
+                case '"': w.write("&quot;"); break;
+                default: w.write(c);
+            }
+        }
+    }
+
+    private int numVertices(){
+        return (compact != null) ? compact.getNumVertices() : lists.getNumVertices();
+    }
+
+    private String label(int v){
+        return String.valueOf((compact != null) ? compact.getVertex(v) : lists.getVertex(v));
+    }
+
+    /**
+     * Returns the indices of the successors of vertex v, in arc order.
+     */
+    private Iterator<Integer> successors(int v){
+        if(compact != null){
+            int[] offsets = compact.getOffsets();
+            int[] targets = compact.getTargets();
+            return new Iterator<Integer>(){
+                private int k = offsets[v];
+                public boolean hasNext(){
+                    return k < offsets[v+1];
+                }
+                public Integer next(){
+                    return targets[k++];
+                }
+            };
+        }
+        Iterator<T> it = lists.arcs.get(v).iterator();
+        return new Iterator<Integer>(){
+            public boolean hasNext(){
+                return it.hasNext();
+            }
+            public Integer next(){
+                return lists.getIndex(it.next());
+            }
+        };
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("*****TESTING*****");
+        AdjListsGraph<String> g = new AdjListsGraph<String>();
+        g.addVertex("A");
+        g.addVertex("B");
+        g.addVertex("C \"x\" <y>");
+        g.addArc("A","B");
+        g.addArc("B","C \"x\" <y>");
+        java.io.StringWriter tgf = new java.io.StringWriter();
+        new GraphExporter<String>(g).export(tgf, Format.TGF);
+        System.out.println("TGF expecting: 1 A|2 B|3 C \"x\" <y>|#|1 2|2 3| result: "
+            + tgf.toString().replace('\n', '|'));
+        java.io.StringWriter edges = new java.io.StringWriter();
+        new GraphExporter<String>(g.freeze()).export(edges, Format.EDGE_LIST);
+        System.out.println("edge list expecting: A\tB|B\tC \"x\" <y>| result: "
+            + edges.toString().replace('\n', '|'));
+        java.io.StringWriter dot = new java.io.StringWriter();
+        new GraphExporter<String>(g).export(dot, Format.DOT);
+        System.out.println("DOT contains expecting: \"B\" -> \"C \\\"x\\\" <y>\" result: "
+            + dot.toString().contains("\"B\" -> \"C \\\"x\\\" <y>\""));
+        java.io.StringWriter xml = new java.io.StringWriter();
+        new GraphExporter<String>(g).export(xml, Format.GRAPHML);
+        System.out.println("GraphML escapes labels expecting: true result: "
+            + xml.toString().contains("C &quot;x&quot; &lt;y&gt;"));
+        java.io.ByteArrayOutputStream zipped = new java.io.ByteArrayOutputStream();
+        new GraphExporter<String>(g).export(zipped, Format.TGF, true);
+        java.io.InputStream in = new java.util.zip.GZIPInputStream(
+            new java.io.ByteArrayInputStream(zipped.toByteArray()));
+        String unzipped = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        System.out.println("gzipped TGF round trip expecting: true result: " + unzipped.equals(tgf.toString()));
+    }
+}
@@ -6,22 +6,25 @@
  * @version 12/5/19
  */
 import java.util.Hashtable;
-import java.util.Set;
 import java.util.LinkedList;
 import java.util.Vector;
 import java.util.Iterator;
-import java.util.Scanner;
 import java.io.File;
 import java.io.PrintWriter;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.net.URL;
 public class Investigate
 {
+    // components with more nodes than this get approximate centrality
+    private static final int EXACT_LIMIT = 20000;
+    // number of sampled nodes for approximate centrality
+    private static final int SAMPLES = 512;
     // instance variables - replace the example below with your own
     private RATgraph r;
     private Hashtable<String,TwitterUser> userTable;
     private Vector<String> stories;
+    private StoryTitleResolver titles;
+    private AnalysisPipeline report; // the findings, computed once per version of the graph
 
     /**
      * Constructor for objects of class Investigate
@@ -29,70 +32,110 @@ public class Investigate
     public Investigate()
     {
         // initialise instance variables
-        r = new RATgraph("All_Russian-Accounts-in-TT-stories.csv.tsv");
+        //the snapshot skips re-reading the accounts file when it has not changed
+        r = RATgraph.load("All_Russian-Accounts-in-TT-stories.csv.tsv", "ratGraph.snapshot");
         userTable = r.getUserTable();
         stories = r.getStories();
+        //titles already looked up are kept in this file between runs
+        titles = new StoryTitleResolver("storyTitles.tsv");
+        report = new AnalysisPipeline(r::getVersion);
+        String[] none = new String[0];
+        String[] components = {"components"};
+        report.define("mostStories", none, p -> computeMostStories());
+        report.define("mostActive", none, p -> computeMostActive());
+        report.define("mostPopularStory", none, p -> computeMostPopularStory());
+        report.define("components", none, p -> r.ratComponents());
+        report.define("largestConnection", components, p -> r.largestComponent());
+        report.define("centralNodes", none, p -> computeCentralNodes());
     }
 
     /** 
-     * returns the user that has been involved with the most stories (most successors)
+     * returns the user that has been involved with the most stories (most successors).
+     * Of users with as many stories, the one read first wins.
      * 
-     * @return String - screen name of the user 
+     * @return String - screen name of the user, null if no user has any stories
      */
     public String mostStories(){
-        Set<String> keys = userTable.keySet();
-        String maxKey = null;
-        int maxValue = 0;
-        for(String key: keys){
-            LinkedList<String> s = r.getRatSuccessors(key);
-            if(s.size()> maxValue){
-                maxKey = key;
-                maxValue = r.getRatSuccessors(key).size();
-                //one definition of most active user is the one that has maximum number of successors 
-            }
+        return report.get("mostStories");
+    }
 
-        }
-        return maxKey;
+    private String computeMostStories(){
+        //one definition of most active user is the one that has maximum number of successors 
+        String maxKey = first(r.topUsersByStories(1));
+        return (maxKey != null && r.getRatDegree(maxKey) > 0) ? maxKey : null;
     }
 
     /** 
-     * returns the user with the highest tweet count
+     * returns the k users that have been involved with the most stories, most first
      * 
-     * @return String - screen name of the user 
+     * @param int - the number of users wanted
+     * @return LinkedList<String> - screen names of the users 
+     */
+    public LinkedList<String> mostStories(int k){
+        return r.topUsersByStories(k);
+    }
+
+    /** 
+     * returns the user with the highest tweet count. Of users with the same
+     * count, the one read first wins.
+     * 
+     * @return String - screen name of the user, null if no user has any tweets
      */
     public String mostActive(){
-        Set<String> keys = userTable.keySet();
-        String maxKey = null;
-        int maxValue = 0;
-        for(String key:keys){
-            if(userTable.get(key).getTweetCount()>maxValue){
-                maxKey = key;
-                maxValue = userTable.get(key).getTweetCount();
-                //one definition of most active user is the one that has maximum number of tweets 
-            }
+        return report.get("mostActive");
+    }
 
-        }
-        return maxKey;
+    private String computeMostActive(){
+        //one definition of most active user is the one that has maximum number of tweets 
+        String maxKey = first(r.topUsersByTweets(1));
+        return (maxKey != null && userTable.get(maxKey).getTweetCount() > 0) ? maxKey : null;
     }
 
     /** 
-     * returns the most popular story  
+     * returns the k users with the highest tweet counts, highest first
      * 
-     * @return String - screen name of the user 
+     * @param int - the number of users wanted
+     * @return LinkedList<String> - screen names of the users 
+     */
+    public LinkedList<String> mostActive(int k){
+        return r.topUsersByTweets(k);
+    }
+
+    /** 
+     * returns the most popular story. Of stories with as many users, the one
+     * read first wins.
+     * 
+     * @return String - the title of the story, null if no story has any users
      */
     public String mostPopularStory(){
-        String maxStory = null;
-        int maxLength = 0;
-        for (int i=0; i < stories.size();i++) {
-            if (r.getRatPredecessors(stories.get(i)).size() > maxLength)
-            {
-                maxLength = r.getRatPredecessors(stories.get(i)).size(); 
-                //the most popular story is the one that has maximum number of predeccessors 
-                maxStory = stories.get(i);
-            }
+        return report.get("mostPopularStory");
+    }
+
+    private String computeMostPopularStory(){
+        //the most popular story is the one that has maximum number of predeccessors 
+        String maxStory = first(r.topStoriesByAudience(1));
+        return (maxStory != null && r.getRatInDegree(maxStory) > 0) ? storyName(maxStory) : null;
+    }
+
+    /** 
+     * returns the titles of the k stories that involve the most users, most first
+     * 
+     * @param int - the number of stories wanted
+     * @return LinkedList<String> - titles of the stories
+     */
+    public LinkedList<String> mostPopularStories(int k){
+        LinkedList<String> ids = r.topStoriesByAudience(k);
+        Hashtable<String,String> names = titles.titles(ids);
+        LinkedList<String> top = new LinkedList<String>();
+        for(String id : ids){
+            String name = names.get(id);
+            top.add((name == null) ? "" : name);
         }
+        return top;
+    }
 
-        return storyName(maxStory);
+    private static String first(LinkedList<String> list){
+        return list.isEmpty() ? null : list.getFirst();
     }
 
     /** 
@@ -102,54 +145,57 @@ public class Investigate
      * @return String - screen name of the user 
      */
     public LinkedList<String> largestConnection(){
-        Set<String> keys = userTable.keySet();
-        LinkedList<String> largeC = null;
-        int maxValue = 0;
-
-        for(String key:keys){
-            String name = r.getUserTable().get(key).getName();
-            if((r.ratDFS(name).size())>maxValue){
-                largeC = r.ratDFS(name);
-                //Computes the connected components (CCs) using DFS starting from any node. 
-                maxValue = (r.ratDFS(name).size()); //the size of the largest connected component
-            }
-
-        }
-        return largeC;
+        //all the components are labelled in one pass, see RATgraph.ratComponents()
+        return new LinkedList<String>(report.<LinkedList<String>>get("largestConnection"));
     }
 
     /** 
-     * returns the central node of the LCC graph 
+     * returns the central node of the LCC graph, the nodes with the smallest
+     * sum of distances to all the other nodes of the LCC. Components larger
+     * than EXACT_LIMIT are measured approximately from a sample of nodes.
      * 
      * @return String either name or story   
      */
     public LinkedList<String> centralNodesinLCC(){
-        //list of the vertices to loop through
-        LinkedList<String> list = largestConnection();
+        return new LinkedList<String>(report.<LinkedList<String>>get("centralNodes"));
+    }
+
+    private LinkedList<String> computeCentralNodes(){
         //the nodes with smallest distance sum will get stored here
         LinkedList<String> nodes = new LinkedList<String>();
-        //initial comparison for the first node
-        int minSum = 10000;
-        for (int i=0; i < list.size();i++) {
-            String current = list.get(i);
-            int currentSum = distanceSum(list.get(i));
-            //this if statement adds the minimum distance sum nodes into the nods linked list
-            //it will clear the list if it finds a smaller sum than the previous one
-            if((currentSum==minSum)){
-                nodes.add(current);
-
-            }else if(currentSum<minSum){
-                nodes.clear();
-                nodes.add(current);
-                minSum = currentSum;
-
+        //the story ids among the nodes, to be replaced with their titles
+        LinkedList<String> storyIds = new LinkedList<String>();
+        //one version of the graph is used throughout, even if rows are added meanwhile
+        try(VersionManager.Pin<RATVersion> pin = r.pinVersion()){
+            CompactGraph<String> g = pin.get().getGraph();
+            ConnectedComponents cc = pin.get().getComponents();
+            if(cc.getLargest() == -1){
+                return nodes;
+            }
+            //list of the vertices to measure
+            int[] members = cc.getMembers(cc.getLargest());
+            ClosenessCentrality closeness = new ClosenessCentrality(g);
+            if(members.length > EXACT_LIMIT){
+                closeness.computeApproximate(members, SAMPLES, 2016);
+            }else{
+                closeness.computeExact(members);
+            }
+            for(int v : closeness.getMostCentral()){
+                nodes.add(g.getVertex(v));
+            }
+            for(String node : nodes){
+                if(pin.get().getBipartiteGraph().isStory(node)){
+                    storyIds.add(node);
+                }
             }
         }
         //this replaces the stories ids in the nodes list with their names to give more information 
-        //about the story
+        //about the story; the titles are all fetched at once
+        Hashtable<String,String> names = titles.titles(storyIds);
         for(int i = 0; i<nodes.size(); i++){
-            if(stories.contains(nodes.get(i))){
-                nodes.set(i,storyName(nodes.get(i)));
+            if(storyIds.contains(nodes.get(i))){
+                String name = names.get(nodes.get(i));
+                nodes.set(i,(name == null) ? "" : name);
                 
             }
             
@@ -160,19 +206,29 @@ public class Investigate
     
 
     /**
-     * checks the sum of the distance between a node and every other node in the graph
+     * checks the sum of the distance between a node and every other node in its connected component
      * 
      * @param String - a node
-     * @return int - sum of the distance between the node and every other node in the graph
+     * @return long - sum of the distance between the node and every other node in the graph
      */
-    public int distanceSum(String v){
-        LinkedList<String> list = largestConnection();
-        int sum = 0; //the sum of all the distance from given node v to all other nodes 
-        for(String node: list){
-            sum+=r.diamBetween(v,node);
-        }
+    public long distanceSum(String v){
+        try(VersionManager.Pin<RATVersion> pin = r.pinVersion()){
+            CompactGraph<String> g = pin.get().getGraph();
+            int source = g.getIndex(v);
+            if(source == -1){
+                return 0;
+            }
+            //a single breadth first search gives the distance to every node
+            TraversalEngine engine = g.getTraversalEngine();
+            engine.bfs(source);
+            long sum = 0; //the sum of all the distance from given node v to all other nodes 
+            for(int i = 0; i < engine.getVisitedCount(); i++){
+                sum += engine.getDepth(engine.getOrder(i));
+            }
+            g.release(engine);
 
-        return sum;
+            return sum;
+        }
     }
 
     /**
@@ -182,23 +238,7 @@ public class Investigate
      * @return String - title of the story
      */
     private String storyName(String id){
-        String s = "";
-        String urlName = "http://twittertrails.wellesley.edu/~trails/stories/title.php?id=" + id;
-        try {
-            URL u = new URL(urlName);
-            
-            Scanner urlScan = new Scanner( u.openStream() );
-            //move past the heading of the HTML doc with this line
-            String header = urlScan.nextLine();
-            while (urlScan.hasNext()) {
-                s += urlScan.nextLine();
-                
-            }
-        } catch (IOException ex) {
-            System.out.println(ex);
-        }
-
-        return s;
+        return titles.title(id);
     }
 
     /** 
@@ -208,6 +248,8 @@ public class Investigate
      * 
      *  */
     public String toString(){
+        //the findings that do not depend on each other are worked out at the same time
+        report.prefetch("mostStories", "mostActive", "mostPopularStory", "largestConnection", "centralNodes");
         String s = "The user involved with the most stories is " + mostStories() + "\n";
         s+= "The most active user i.e. the user with the highest tweet count is " + mostActive()+ "\n";
         s+= "The most popular story i.e the story that involves maximum users is " + mostPopularStory()+ "\n";
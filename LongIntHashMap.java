@@ -0,0 +1,150 @@
+/**
+ * A hash table from primitive long keys to primitive int values, using open
+ * addressing with linear probing. Keys and values are kept in two plain
+ * arrays, so there is no boxing and no entry object per key. Entries
+ * cannot be removed.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+public class LongIntHashMap
+{
+    // marks an empty slot; a real key equal to it is stored on the side
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    // instance variables
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask; // keys.length - 1, the length is a power of two
+    private boolean hasEmptyKey;
+    private int emptyKeyValue;
+
+    /**
+     * Constructor for objects of class LongIntHashMap
+     *
+     * @param the number of entries expected, the table grows past it if needed
+     */
+    public LongIntHashMap(int expected)
+    {
+        int capacity = 16;
+        while(capacity < expected * 2L && capacity < (1 << 30)){
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity){
+        keys = new long[capacity];
+        java.util.Arrays.fill(keys, EMPTY);
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of keys in the table
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Returns the value of a key.
+     *
+     * @param the key to look up
+     * @return its value, or -1 if the key is not in the table
+     */
+    public int get(long key){
+        if(key == EMPTY){
+            return hasEmptyKey ? emptyKeyValue : -1;
+        }
+        int slot = slot(key);
+        while(keys[slot] != EMPTY){
+            if(keys[slot] == key){
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns true if the key is in the table.
+     *
+     * @param the key to look up
+     * @return true if it has a value
+     */
+    public boolean containsKey(long key){
+        if(key == EMPTY){
+            return hasEmptyKey;
+        }
+        int slot = slot(key);
+        while(keys[slot] != EMPTY){
+            if(keys[slot] == key){
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Sets the value of a key, replacing any previous value.
+     *
+     * @param the key
+     * @param its value
+     */
+    public void put(long key, int value){
+        if(key == EMPTY){
+            if(!hasEmptyKey){
+                size++;
+            }
+            hasEmptyKey = true;
+            emptyKeyValue = value;
+            return;
+        }
+        int slot = slot(key);
+        while(keys[slot] != EMPTY){
+            if(keys[slot] == key){
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if(size * 2 > keys.length){
+            rehash();
+        }
+    }
+
+    /**
+     * Doubles the table and puts every entry back.
+     */
+    private void rehash(){
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(keys.length * 2);
+        for(int i = 0; i < oldKeys.length; i++){
+            if(oldKeys[i] != EMPTY){
+                int slot = slot(oldKeys[i]);
+                while(keys[slot] != EMPTY){
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the home slot of a key, mixing its bits so that nearby keys spread out.
+     */
+    private int slot(long key){
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,250 @@
+/**
+ * A parallel, level-synchronous breadth first search over a CompactGraph,
+ * run on a fork-join pool. Each level (frontier) is split into chunks that
+ * are expanded in parallel. The search is direction-optimizing: while the
+ * frontier is small it expands top-down (every frontier vertex claims its
+ * unvisited successors), and once the frontier gets large it switches to
+ * bottom-up (every unvisited vertex looks for a predecessor in the frontier),
+ * which skips most of the arcs of a big frontier.
+ *
+ * The hop distances are the same on every run. The order of the vertices
+ * inside a level depends on thread timing, unless deterministic output is
+ * turned on, in which case every level is listed in increasing index order.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+public class ParallelBFS
+{
+    // a level switches to bottom-up when its arcs exceed 1/ALPHA of the unexplored arcs
+    private static final int ALPHA = 14;
+    // and back to top-down when the frontier holds fewer than 1/BETA of the vertices
+    private static final int BETA = 24;
+    // number of frontier vertices (or vertices, bottom-up) handled by one task
+    private static final int GRAIN = 2048;
+
+    // instance variables
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] inOffsets;
+    private final int[] inTargets;
+    private final int n;
+    private final ForkJoinPool pool;
+    private boolean deterministic;
+
+    // results of the last search
+    private int[] distances;
+    private int[] order;
+    private int reached;
+
+    /**
+     * Constructor for objects of class ParallelBFS, running on the common fork-join pool
+     *
+     * @param the graph to search
+     */
+    public ParallelBFS(CompactGraph<?> g)
+    {
+        this(g, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for objects of class ParallelBFS
+     *
+     * @param the graph to search
+     * @param the pool whose threads run the search
+     */
+    public ParallelBFS(CompactGraph<?> g, ForkJoinPool pool)
+    {
+        offsets = g.getOffsets();
+        targets = g.getTargets();
+        inOffsets = g.getInOffsets();
+        inTargets = g.getInTargets();
+        n = g.getNumVertices();
+        this.pool = pool;
+    }
+
+    /**
+     * Turns deterministic output on or off. When on, the vertices of every
+     * level are sorted by index, so getOrder is the same on every run.
+     *
+     * @param true for deterministic output
+     */
+    public void setDeterministic(boolean deterministic){
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * Runs a breadth first search from the given vertex.
+     *
+     * @param the index of the vertex where the search begins
+     * @return the number of vertices reached, including the source
+     */
+    public int search(int source){
+        AtomicIntegerArray dist = new AtomicIntegerArray(n);
+        for(int v = 0; v < n; v++){
+            dist.set(v, -1);
+        }
+        order = new int[n];
+        reached = 0;
+
+        int[] frontier = {source};
+        int frontierSize = 1;
+        dist.set(source, 0);
+        long unexploredArcs = targets.length;
+        long frontierArcs = offsets[source+1] - offsets[source];
+        boolean bottomUp = false;
+        int level = 0;
+        while(frontierSize > 0){
+            System.arraycopy(frontier, 0, order, reached, frontierSize);
+            reached += frontierSize;
+            unexploredArcs -= frontierArcs;
+            if(!bottomUp && frontierArcs > unexploredArcs / ALPHA){
+                bottomUp = true;
+            }else if(bottomUp && frontierSize < n / BETA){
+                bottomUp = false;
+            }
+
+            int chunks;
+            Step step;
+            if(bottomUp){
+                chunks = (n + GRAIN - 1) / GRAIN;
+                step = new Step(dist, level, null, 0, new int[chunks][], 0, chunks, true);
+            }else{
+                chunks = (frontierSize + GRAIN - 1) / GRAIN;
+                step = new Step(dist, level, frontier, frontierSize, new int[chunks][], 0, chunks, false);
+            }
+            if(chunks == 1){
+                step.compute(); // not worth handing to the pool
+            }else{
+                pool.invoke(step);
+            }
+
+            //concatenate the chunks into the next frontier
+            frontierSize = 0;
+            for(int c = 0; c < chunks; c++){
+                frontierSize += step.found[c].length;
+            }
+            frontier = new int[frontierSize];
+            int pos = 0;
+            frontierArcs = 0;
+            for(int c = 0; c < chunks; c++){
+                int[] part = step.found[c];
+                System.arraycopy(part, 0, frontier, pos, part.length);
+                pos += part.length;
+            }
+            for(int i = 0; i < frontierSize; i++){
+                frontierArcs += offsets[frontier[i]+1] - offsets[frontier[i]];
+            }
+            if(deterministic && !bottomUp){
+                Arrays.sort(frontier); // bottom-up levels already come out in index order
+            }
+            level++;
+        }
+
+        distances = new int[n];
+        for(int v = 0; v < n; v++){
+            distances[v] = dist.get(v);
+        }
+        return reached;
+    }
+
+    /**
+     * Returns the hop distances found by the last search.
+     *
+     * @return an array with the distance of every vertex from the source,
+     * indexed by vertex index, -1 for vertices that were not reached
+     */
+    public int[] getDistances(){
+        return distances;
+    }
+
+    /**
+     * Returns the vertices reached by the last search, level by level.
+     *
+     * @return the indices of the reached vertices
+     */
+    public int[] getOrder(){
+        return Arrays.copyOf(order, reached);
+    }
+
+    /**
+     * Expands one level of the search over a range of chunks, splitting the
+     * range in two until a single chunk is left. The vertices found by each
+     * chunk are stored in found[chunk].
+     */
+    private class Step extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+        private final AtomicIntegerArray dist;
+        private final int level;
+        private final int[] frontier;
+        private final int frontierSize;
+        private final int[][] found;
+        private final int firstChunk;
+        private final int lastChunk; // exclusive
+        private final boolean bottomUp;
+
+        Step(AtomicIntegerArray dist, int level, int[] frontier, int frontierSize,
+            int[][] found, int firstChunk, int lastChunk, boolean bottomUp)
+        {
+            this.dist = dist;
+            this.level = level;
+            this.frontier = frontier;
+            this.frontierSize = frontierSize;
+            this.found = found;
+            this.firstChunk = firstChunk;
+            this.lastChunk = lastChunk;
+            this.bottomUp = bottomUp;
+        }
+
+        protected void compute(){
+            if(lastChunk - firstChunk > 1){
+                int mid = (firstChunk + lastChunk) >>> 1;
+                invokeAll(new Step(dist, level, frontier, frontierSize, found, firstChunk, mid, bottomUp),
+                    new Step(dist, level, frontier, frontierSize, found, mid, lastChunk, bottomUp));
+                return;
+            }
+            int[] next = new int[16];
+            int count = 0;
+            int nextLevel = level + 1;
+            if(bottomUp){
+                int hi = Math.min(n, (firstChunk + 1) * GRAIN);
+                for(int v = firstChunk * GRAIN; v < hi; v++){
+                    if(dist.get(v) != -1){
+                        continue;
+                    }
+                    for(int k = inOffsets[v]; k < inOffsets[v+1]; k++){
+                        //distances of this level are final, only nextLevel is being written
+                        if(dist.get(inTargets[k]) == level){
+                            dist.set(v, nextLevel);
+                            if(count == next.length){
+                                next = Arrays.copyOf(next, count * 2);
+                            }
+                            next[count++] = v;
+                            break;
+                        }
+                    }
+                }
+            }else{
+                int hi = Math.min(frontierSize, (firstChunk + 1) * GRAIN);
+                for(int i = firstChunk * GRAIN; i < hi; i++){
+                    int v = frontier[i];
+                    for(int k = offsets[v]; k < offsets[v+1]; k++){
+                        int w = targets[k];
+                        if(dist.get(w) == -1 && dist.compareAndSet(w, -1, nextLevel)){
+                            if(count == next.length){
+                                next = Arrays.copyOf(next, count * 2);
+                            }
+                            next[count++] = w;
+                        }
+                    }
+                }
+            }
+            found[firstChunk] = Arrays.copyOf(next, count);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/**
+ * Saves a built RAT graph to a compact binary file and loads it back, so
+ * that the accounts file does not have to be parsed again on every start.
+ * The file holds the arrays of a published version as they are in memory,
+ * so loading copies them out of the mapped file in bulk and publishes them
+ * as the first version of the graph; the graph that writers change is only
+ * built when the loaded graph is first changed.
+ *
+ * The file holds, in this order (all numbers big-endian):
+ *   the magic number 'RATG' and the format version
+ *   the size and modification time of the accounts file it was built from
+ *   the story table: the number of stories, then every story id as a long
+ *   the user columns of the UserStore: the number of users, the number of
+ *     name bytes, the UTF-8 bytes of all the screen names one after
+ *     another, where each name starts, the hash code of every name, and
+ *     the user ids, tweet counts and story counts
+ *   the vertex table: the number of vertices, then for every vertex its
+ *     user number, or -1 minus its story number for a story
+ *   the arcs in compressed sparse rows: the offsets of every vertex, then
+ *     the number of arcs and their target vertices
+ *   a CRC-32 checksum of everything before it
+ * Users, stories and vertices are numbered in the order they were first
+ * added to the graph, so loading gives back exactly the same graph.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+public class RATSnapshot
+{
+    private static final int MAGIC = 0x52415447; // "RATG"
+    private static final int VERSION = 2;
+
+    /**
+     * Writes a snapshot of a RAT graph. The file is written under a temporary
+     * name first and then renamed, so a reader never sees half a snapshot.
+     *
+     * @param RATgraph - the graph to save
+     * @param String - the accounts file the graph was read from
+     * @param String - the name of the snapshot file
+     * @exception IOException thrown when the snapshot cannot be written
+     */
+    public static void write(RATgraph r, String tsvFile, String snapshotFile) throws IOException {
+        File tsv = new File(tsvFile);
+        File target = new File(snapshotFile);
+        File temp = new File(target.getAbsoluteFile().getParentFile(), target.getName() + ".tmp");
+        //the graph and the accounts of one version, even if rows are added meanwhile
+        VersionManager.Pin<RATVersion> pin = r.pinVersion();
+        RATVersion version = pin.get();
+        CompactGraph<String> g = version.getGraph();
+        UserStore store = r.getUserStore();
+        StoryRegistry registry = r.getStoryRegistry();
+        int numUsers = version.getNumUsers();
+        int numVertices = g.getNumVertices();
+        //names are only ever added to the store, so the first numUsers are those of the version
+        byte[] namePool = store.getNamePool();
+        int[] nameStarts = store.getNameStarts();
+        int[] nameHashes = store.getNameHashes();
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        CRC32 crc = new CRC32();
+        DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temp), 1 << 16), crc));
+        try{
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(tsv.length());
+            out.writeLong(tsv.lastModified());
+            //the stories of the version are the first ones registered
+            int numStories = numVertices - numUsers;
+            out.writeInt(numStories);
+            for(int s = 0; s < numStories; s++){
+                out.writeLong(registry.getId(s));
+            }
+            out.writeInt(numUsers);
+            out.writeInt(nameStarts[numUsers]);
+            out.write(namePool, 0, nameStarts[numUsers]);
+            writeInts(out, nameStarts, numUsers + 1);
+            writeInts(out, nameHashes, numUsers);
+            TwitterUser[] users = new TwitterUser[numUsers];
+            for(int u = 0; u < numUsers; u++){
+                users[u] = version.getUser(u);
+                out.writeLong(Long.parseLong(users[u].getID()));
+            }
+            for(int u = 0; u < numUsers; u++){
+                out.writeInt(users[u].getTweetCount());
+            }
+            for(int u = 0; u < numUsers; u++){
+                out.writeInt(users[u].getStoryCount());
+            }
+            out.writeInt(numVertices);
+            for(int v = 0; v < numVertices; v++){
+                String vertex = g.getVertex(v);
+                int u = store.find(vertex);
+                out.writeInt((u != -1 && u < numUsers) ? u : -1 - registry.getNumber(Long.parseLong(vertex)));
+            }
+            writeInts(out, offsets, numVertices + 1);
+            out.writeInt(targets.length);
+            writeInts(out, targets, targets.length);
+            //the checksum itself is not part of what it checks
+            out.writeLong(crc.getValue());
+        }finally{
+            out.close();
+            pin.close();
+        }
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] a, int n) throws IOException {
+        for(int i = 0; i < n; i++){
+            out.writeInt(a[i]);
+        }
+    }
+
+    /**
+     * checks whether a snapshot was built from the current version of an accounts file
+     *
+     * @param String - the accounts file
+     * @param String - the snapshot file
+     * @return boolean - true if the snapshot exists and is not older than the accounts file
+     */
+    public static boolean isFresh(String tsvFile, String snapshotFile){
+        File tsv = new File(tsvFile);
+        File snapshot = new File(snapshotFile);
+        if(!snapshot.isFile()){
+            return false;
+        }
+        if(!tsv.isFile()){
+            return true; // nothing newer to read
+        }
+        if(snapshot.lastModified() < tsv.lastModified()){
+            return false;
+        }
+        try(FileChannel channel = FileChannel.open(snapshot.toPath(), StandardOpenOption.READ)){
+            ByteBuffer header = ByteBuffer.allocate(24);
+            channel.read(header, 0);
+            header.flip();
+            if(header.remaining() < 24 || header.getInt() != MAGIC || header.getInt() != VERSION){
+                return false;
+            }
+            return header.getLong() == tsv.length() && header.getLong() == tsv.lastModified();
+        }catch(IOException e){
+            return false;
+        }
+    }
+
+    /**
+     * Loads a RAT graph from a snapshot. The file is memory-mapped and its
+     * checksum checked; then the arrays are copied out in bulk and become
+     * the first published version of the graph, with no account or edge
+     * added one at a time.
+     *
+     * @param String - the accounts file the snapshot was built from, kept as the graph's input file
+     * @param String - the snapshot file
+     * @return RATgraph - the graph saved in the snapshot
+     * @exception IOException thrown when the snapshot cannot be read, is of another version, or is corrupt
+     */
+    public static RATgraph read(String tsvFile, String snapshotFile) throws IOException {
+        try(FileChannel channel = FileChannel.open(new File(snapshotFile).toPath(), StandardOpenOption.READ)){
+            long size = channel.size();
+            if(size < 32 || size > Integer.MAX_VALUE){
+                throw new IOException(snapshotFile + " is not a RAT snapshot");
+            }
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer body = buf.duplicate();
+            body.limit((int) size - 8);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if(buf.getLong((int) size - 8) != crc.getValue()){
+                throw new IOException(snapshotFile + " is corrupt (checksum mismatch)");
+            }
+            if(buf.getInt() != MAGIC || buf.getInt() != VERSION){
+                throw new IOException(snapshotFile + " is not a version " + VERSION + " RAT snapshot");
+            }
+            buf.getLong(); // accounts file size and time, see isFresh
+            buf.getLong();
+            StoryRegistry registry = new StoryRegistry(readLongs(buf, buf.getInt()));
+            int numUsers = buf.getInt();
+            byte[] namePool = new byte[buf.getInt()];
+            buf.get(namePool);
+            int[] nameStarts = readInts(buf, numUsers + 1);
+            int[] nameHashes = readInts(buf, numUsers);
+            long[] ids = readLongs(buf, numUsers);
+            int[] tweetCounts = readInts(buf, numUsers);
+            int[] storyCounts = readInts(buf, numUsers);
+            UserStore store = UserStore.load(namePool, nameStarts, nameHashes, ids, tweetCounts, storyCounts);
+            int[] kinds = readInts(buf, buf.getInt());
+            int numVertices = kinds.length;
+            Object[] vertexTable = new Object[numVertices];
+            for(int v = 0; v < numVertices; v++){
+                vertexTable[v] = (kinds[v] >= 0) ? store.getName(kinds[v]) : registry.getLabel(-1 - kinds[v]);
+            }
+            int[] offsets = readInts(buf, numVertices + 1);
+            int[] targets = readInts(buf, buf.getInt());
+            //the checksum only finds accidents, make sure the arrays fit together
+            if(numVertices != numUsers + registry.size() || offsets[0] != 0 || offsets[numVertices] != targets.length){
+                throw new IOException(snapshotFile + " is corrupt (the tables do not match)");
+            }
+            for(int v = 0; v < numVertices; v++){
+                if(offsets[v] > offsets[v+1]){
+                    throw new IOException(snapshotFile + " is corrupt (bad offsets)");
+                }
+            }
+            for(int t : targets){
+                if(t < 0 || t >= numVertices){
+                    throw new IOException(snapshotFile + " is corrupt (bad arc)");
+                }
+            }
+            //the index of the vertices is built by the first query that needs it
+            return RATgraph.loaded(tsvFile, store, registry, new CompactGraph<String>(vertexTable, null, offsets, targets));
+        }catch(RuntimeException e){ // counts or positions out of range
+            throw new IOException(snapshotFile + " is corrupt: " + e);
+        }
+    }
+
+    private static int[] readInts(ByteBuffer buf, int n){
+        int[] a = new int[n];
+        buf.asIntBuffer().get(a);
+        buf.position(buf.position() + n * 4);
+        return a;
+    }
+
+    private static long[] readLongs(ByteBuffer buf, int n){
+        long[] a = new long[n];
+        buf.asLongBuffer().get(a);
+        buf.position(buf.position() + n * 8);
+        return a;
+    }
+}
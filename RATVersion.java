@@ -0,0 +1,141 @@
+/**
+ * One published version of a RAT graph: a read-only copy of the graph
+ * together with the ids and counts of its accounts and read-only copies of
+ * its sorted indexes, all taken at the same moment. Everything computed
+ * from the version, such as the bipartite split and the connected
+ * components, is computed the first time it is asked for and kept with the
+ * version, so queries that combine several of them always agree with each
+ * other even while rows are being added to the graph.
+ *
+ * Accounts are numbered as in the UserStore of the graph, which is also
+ * the numbering of the users of getBipartiteGraph().
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.util.Hashtable;
+import java.util.Map;
+public class RATVersion
+{
+    // instance variables
+    private final CompactGraph<String> graph;
+    private final UserStore store; // only read for screen names, which never change
+    private final int numUsers;
+    private final long[] userIds;
+    private final int[] tweetCounts;
+    private final int[] storyCounts;
+    private final Hashtable<String,UserIndex> indexes;
+    private BipartiteGraph<String> bipartite;
+    private ConnectedComponents components;
+
+    /**
+     * Constructor for objects of class RATVersion. Must be called while
+     * nothing changes the graph, the store or the indexes.
+     *
+     * @param a read-only copy of the graph
+     * @param the accounts of the graph
+     * @param the indexes of the accounts, by name
+     */
+    RATVersion(CompactGraph<String> graph, UserStore store, Hashtable<String,UserIndex> liveIndexes)
+    {
+        this.graph = graph;
+        this.store = store;
+        userIds = store.getUserIds();
+        tweetCounts = store.getTweetCounts();
+        storyCounts = store.getStoryCounts();
+        numUsers = userIds.length;
+        indexes = new Hashtable<String,UserIndex>();
+        for(Map.Entry<String,UserIndex> entry : liveIndexes.entrySet()){
+            indexes.put(entry.getKey(), entry.getValue().snapshot(this::getUser));
+        }
+    }
+
+    /**
+     * gets the graph of this version
+     *
+     * @return CompactGraph<String> - the users, the stories and the edges between them
+     */
+    public CompactGraph<String> getGraph(){
+        return graph;
+    }
+
+    /**
+     * gets the number of accounts in this version
+     *
+     * @return int - the number of users
+     */
+    public int getNumUsers(){
+        return numUsers;
+    }
+
+    /**
+     * Returns an account as it was in this version.
+     *
+     * @param the number of the account
+     * @return TwitterUser - a copy of the account
+     */
+    public TwitterUser getUser(int u){
+        if(u < 0 || u >= numUsers){
+            throw new IndexOutOfBoundsException("no account number " + u);
+        }
+        return new TwitterUser(store.getName(u), Long.toString(userIds[u]), tweetCounts[u], storyCounts[u]);
+    }
+
+    /**
+     * Returns an account as it was in this version.
+     *
+     * @param a screen name
+     * @return TwitterUser - a copy of the account, null if it is not in this version
+     */
+    public TwitterUser getUser(String name){
+        int u = store.find(name);
+        return (u == -1 || u >= numUsers) ? null : getUser(u);
+    }
+
+    /**
+     * gets a read-only index of the accounts of this version
+     *
+     * @param the name of the indexed attribute
+     * @return UserIndex - the index, null if there is none by that name
+     */
+    public UserIndex getUserIndex(String name){
+        return indexes.get(name);
+    }
+
+    /**
+     * Returns the graph split into users and stories, built the first time it is asked for.
+     *
+     * @return BipartiteGraph<String> - the users, the stories and the arcs between them
+     */
+    public synchronized BipartiteGraph<String> getBipartiteGraph(){
+        if(bipartite == null){
+            bipartite = new BipartiteGraph<String>(graph, v -> {
+                int u = store.find(v);
+                return u != -1 && u < numUsers;
+            });
+        }
+        return bipartite;
+    }
+
+    /**
+     * Returns the connected components of the graph, found the first time they are asked for.
+     *
+     * @return ConnectedComponents - the components of getGraph()
+     */
+    public synchronized ConnectedComponents getComponents(){
+        if(components == null){
+            components = graph.components();
+        }
+        return components;
+    }
+
+    // the array below is shared, not copied, and must not be changed
+
+    /**
+     * Returns the tweet count of every account, indexed by account number,
+     * which is also the user id of getBipartiteGraph().
+     */
+    int[] getTweetCounts(){
+        return tweetCounts;
+    }
+}
@@ -6,91 +6,753 @@
  * @author Farzana Patwa and Anushri Jhunjhunwala 
  * @version 12/5/19
  */
-import java.util.Scanner;
 import java.io.File;
 import java.io.PrintWriter;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
 public class RATgraph 
 {
     // instance variables 
     private String inFile;
-    private Hashtable<String,TwitterUser> users;
+    private UserStore userStore; // the accounts, numbered in the order they were added
+    private Hashtable<String,TwitterUser> userTable; // views of userStore, made when asked for
     private Vector<String> stories;
+    private StoryRegistry storyRegistry; // story id -> dense number, in the same order as stories
+    private Hashtable<String,UserIndex> userIndexes; // attribute name -> accounts sorted by it
 
-    AdjListsGraph<String> RAT;
+    ConnectedGraph<String> RAT; // null until the first change of a graph loaded from a snapshot or by addRows
+    // held by whoever changes RAT, the accounts, the stories or the indexes, and while publishing
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private boolean dirty; // true when there are changes not published yet, guarded by writeLock
+    // the read-only versions of the graph and its accounts that queries read
+    private final VersionManager<RATVersion> versions;
 
     /**
      * Constructor for objects of class RATgraph
      */
     public RATgraph(String f)
+    {
+        this(f, true);
+    }
+
+    /**
+     * Constructor for objects of class RATgraph
+     * 
+     * @param String - the accounts file
+     * @param boolean - true to read the file now, false to start with an empty graph
+     */
+    private RATgraph(String f, boolean read)
+    {
+        this(f, new UserStore(), new StoryRegistry(), null);
+        if(read){
+            readToGraph();
+        }
+    }
+
+    /**
+     * Constructor for objects of class RATgraph, publishing a graph that is
+     * already built as its first version. The graph that writers change is
+     * only built from it when the graph is first changed.
+     * 
+     * @param String - the accounts file
+     * @param UserStore - the accounts, numbered in the order they were added to the graph
+     * @param StoryRegistry - the stories, numbered in the order they were added to the graph
+     * @param CompactGraph<String> - the users, the stories and the edges between them, null for none
+     */
+    private RATgraph(String f, UserStore store, StoryRegistry registry, CompactGraph<String> graph)
     {
         // initialise instance variables
         inFile = f;
-        users = new Hashtable<String,TwitterUser>(300);
-        stories = new Vector<String>();
-        RAT = new AdjListsGraph<String>();
-        readToGraph();
+        userStore = store;
+        storyRegistry = registry;
+        stories = new Vector<String>(Math.max(10, registry.size()));
+        for (int s = 0; s < registry.size(); s++) {
+            stories.add(registry.getLabel(s));
+        }
+        userIndexes = new Hashtable<String,UserIndex>();
+        userIndexes.put("tweetCount", new UserIndex("tweetCount", userStore, TwitterUser::getTweetCount));
+        userIndexes.put("storyCount", new UserIndex("storyCount", userStore, TwitterUser::getStoryCount));
+        for (UserIndex index : userIndexes.values()) {
+            for (int user = 0; user < userStore.size(); user++) {
+                index.add(user);
+            }
+        }
+        if (graph == null) {
+            RAT = new ConnectedGraph<String>(true); //keep predecessors for the story queries
+            graph = RAT.freeze();
+        }
+        versions = new VersionManager<RATVersion>(new RATVersion(graph, userStore, userIndexes));
+    }
+
+    /**
+     * Returns an empty RAT graph for the given accounts file, without reading it
+     * 
+     * @param String - the accounts file
+     * @return RATgraph - a graph with no users or stories
+     */
+    static RATgraph empty(String f){
+        return new RATgraph(f, false);
     }
 
     /**
-     * Reads graph data from the input file  
-     * @exception FileNotFoundException thrown when the input file 
-     * is not found
+     * Returns a RAT graph whose first version is a graph loaded from a snapshot
+     * 
+     * @param String - the accounts file
+     * @param UserStore - the accounts, numbered in the order they were added to the graph
+     * @param StoryRegistry - the stories, numbered in the order they were added to the graph
+     * @param CompactGraph<String> - the users, the stories and the edges between them
+     * @return RATgraph - a graph with those accounts and stories
+     */
+    static RATgraph loaded(String f, UserStore store, StoryRegistry registry, CompactGraph<String> graph){
+        return new RATgraph(f, store, registry, graph);
+    }
+
+    /**
+     * Builds the RAT graph of an accounts file, from its binary snapshot when
+     * there is an up to date one. Otherwise the accounts file is read and a
+     * new snapshot is saved for the next time.
+     * 
+     * @param String - the accounts file
+     * @param String - the snapshot file
+     * @return RATgraph - the graph of the accounts file
+     */
+    public static RATgraph load(String f, String snapshotFile){
+        if(RATSnapshot.isFresh(f, snapshotFile)){
+            try{
+                return RATSnapshot.read(f, snapshotFile);
+            }catch(IOException e){
+                System.out.println("Could not use the snapshot, reading " + f + " instead: " + e.getMessage());
+            }
+        }
+        RATgraph r = new RATgraph(f);
+        if(!r.getUserTable().isEmpty()){
+            try{
+                RATSnapshot.write(r, f, snapshotFile);
+            }catch(IOException e){
+                System.out.println("Could not save the snapshot " + snapshotFile + ": " + e);
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Reads graph data from the input file. The file is parsed in parallel
+     * by a TSVIngester; into an empty graph, the rows are then merged in one
+     * go by addRows, otherwise the accounts are added one at a time, in order.
+     * Accounts with badly formatted numbers are reported and ignored; if the
+     * file is not found, the graph is left empty.
      */
     public void readToGraph()
     {
-
+        TSVIngester ingester = new TSVIngester(inFile);
         try { 
-            //set up Scanner on the input file
-            Scanner scan = new Scanner(new File(inFile));
-            //read and ignore the top line in the file (header)
-            String header = scan.nextLine();
-            //read data from input file, one line per account
-            while (scan.hasNext()) {
-                //read name and id as Strings
-                String name = scan.next();
-                RAT.addVertex(name);
-                String id = scan.next();
-                //try to read the numbers 
-                //NumberFormatExceptions are possible
-                try { 
-                    int tweet = Integer.parseInt(scan.next());
-                    int storyC = Integer.parseInt(scan.next());
-                    users.put(name,new TwitterUser(name,id,tweet,storyC));
+            ingester.ingest();
+        }
+        catch (FileNotFoundException e) {  
+            System.out.println ("The file " + inFile + " was not found.");
+            return;
+        }  
+        catch (IOException e) {
+            System.out.println ("The file " + inFile + " could not be read: " + e);
+            return;
+        }
+        for (String error : ingester.getErrors()) { //a number was not properly formatted
+            System.out.println ("Format error in input file " + inFile + ", " + error);
+            System.out.println ("This account is ignored");
+        }
+        //queries keep reading the last published version until all the rows are in
+        writeLock.lock();
+        try {
+            if (userStore.size() == 0 && storyRegistry.size() == 0) {
+                addRows(ingester.getRows());
+            }
+            else {
+                for (TSVIngester.Row row : ingester.getRows()) {
+                    addAccount(row.name, row.userId, row.tweetCount, row.storyCount, row.getStoryIds());
+                }
+            }
+        }
+        finally {
+            try {
+                publish();
+            }
+            finally {
+                writeLock.unlock();
+            }
+        }
+    }
 
+    /**
+     * Adds the rows of an accounts file to a graph with no accounts or
+     * stories yet, building the compact graph straight from the rows
+     * instead of adding one account at a time. Vertices and arcs come out in
+     * the order addAccount would have added them, and the result is published
+     * as it is: as for a snapshot, the graph that writers change is only built
+     * when the graph is first changed. Called with the write lock held.
+     * 
+     * @param List<TSVIngester.Row> - the rows, in file order
+     */
+    private void addRows(List<TSVIngester.Row> rows){
+        int listed = 0;
+        for (TSVIngester.Row row : rows) {
+            listed += row.stories.length;
+        }
+        //the vertex of every account, every story, and every row and story listed on a row
+        int[] userVertex = new int[Math.max(16, rows.size())];
+        int[] storyVertex = new int[Math.max(16, listed)];
+        int[] rowVertex = new int[rows.size()];
+        int[] listedVertex = new int[listed];
+        Object[] vertexTable = new Object[16];
+        int[] offsets = new int[17]; // out-degrees first, offsets once every arc is counted
+        int n = 0;
+        int p = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            TSVIngester.Row row = rows.get(i);
+            int known = userStore.size();
+            int user = storeAccount(row.name, row.userId, row.tweetCount, row.storyCount);
+            if (user == known) { //a new account
+                //a name that is also a story's label is one vertex, as in the graph
+                int story = storyNumber(row.name);
+                if (story != -1) {
+                    userVertex[user] = storyVertex[story];
                 }
-                catch (NumberFormatException e) { //a number was not properly formatted
-                    System.out.println ("Format error in input file: in " +
-                        name +"'s data");
-                    System.out.println ("This account is ignored");
-                    scan.nextLine();//ignore the rest of the current line from the file
-                    continue; //exit *only* this loop iteration 
+                else {
+                    if (n == vertexTable.length) {
+                        vertexTable = Arrays.copyOf(vertexTable, n * 2);
+                        offsets = Arrays.copyOf(offsets, n * 2 + 1);
+                    }
+                    vertexTable[n] = row.name;
+                    userVertex[user] = n++;
                 }
-                String[] allStories = scan.next().split(",");
-                for(int i = 0; i<allStories.length; i++){
-                    //will do nothing if already in graph
-                    RAT.addVertex(allStories[i]);
-                    RAT.addEdge(name,allStories[i]);
-
-                    if (!stories.contains(allStories[i])) {
-                        stories.add(allStories[i]);
+            }
+            int u = userVertex[user];
+            rowVertex[i] = u;
+            for (long storyId : row.stories) {
+                int knownStories = storyRegistry.size();
+                int number = storyRegistry.register(storyId);
+                if (number == knownStories) { //a new story
+                    String label = storyRegistry.getLabel(number);
+                    stories.add(label);
+                    int named = userStore.find(label);
+                    if (named != -1) {
+                        storyVertex[number] = userVertex[named];
                     }
+                    else {
+                        if (n == vertexTable.length) {
+                            vertexTable = Arrays.copyOf(vertexTable, n * 2);
+                            offsets = Arrays.copyOf(offsets, n * 2 + 1);
+                        }
+                        vertexTable[n] = label;
+                        storyVertex[number] = n++;
+                    }
+                }
+                int v = storyVertex[number];
+                listedVertex[p++] = v;
+                //addEdge adds an arc each way
+                offsets[u+1]++;
+                offsets[v+1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v+1] += offsets[v];
+        }
+        //fill every row of arcs in the order addEdge would have added them
+        int[] targets = new int[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        p = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            int u = rowVertex[i];
+            for (int k = 0; k < rows.get(i).stories.length; k++) {
+                int v = listedVertex[p++];
+                targets[fill[u]++] = v;
+                targets[fill[v]++] = u;
+            }
+        }
+        RAT = null;
+        dirty = false;
+        versions.publish(new RATVersion(new CompactGraph<String>(Arrays.copyOf(vertexTable, n), null,
+                                                                 Arrays.copyOf(offsets, n + 1), targets),
+                                        userStore, userIndexes));
+    }
+
+    /**
+     * Returns the number of the story whose label is the given name, if
+     * there is one
+     * 
+     * @param String - a name
+     * @return int - the number of the story, -1 if no story has that label
+     */
+    private int storyNumber(String name){
+        //a label is a story id written without a sign or leading zeros
+        if (name.isEmpty() || name.length() > 19 || (name.charAt(0) == '0' && name.length() > 1)) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = 0; i < name.length(); i++) {
+            int digit = name.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || id > (Long.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            id = id * 10 + digit;
+        }
+        return storyRegistry.getNumber(id);
+    }
 
+    /**
+     * Adds an account and the edges to all its stories to the graph
+     * 
+     * @param TwitterUser - the account
+     * @param long[] - the ids of its stories
+     */
+    void addAccount(TwitterUser user, long[] allStories){
+        addAccount(user.getName(), Long.parseLong(user.getID()), user.getTweetCount(), user.getStoryCount(), allStories);
+    }
+
+    /**
+     * Adds an account and the edges to all its stories to the graph. Queries
+     * see it once publish() is called.
+     * 
+     * @param String - the screen name
+     * @param long - the user id
+     * @param int - the tweet count
+     * @param int - the story count
+     * @param long[] - the ids of its stories
+     */
+    void addAccount(String name, long userId, int tweetCount, int storyCount, long[] allStories){
+        writeLock.lock();
+        try {
+            graphChanged();
+            mutableGraph().addVertex(name);
+            storeAccount(name, userId, tweetCount, storyCount);
+            for(int i = 0; i<allStories.length; i++){
+                int known = storyRegistry.size();
+                int number = storyRegistry.register(allStories[i]);
+                //every edge to a story shares the story's one label
+                String story = storyRegistry.getLabel(number);
+                if (number == known) { //a new story
+                    mutableGraph().addVertex(story);
+                    stories.add(story);
                 }
+                mutableGraph().addEdge(name,story);
+
             }
-            scan.close();
         }
-        catch (FileNotFoundException e) {  
-            System.out.println ("The file " + inFile + " was not found.");
-            System.out.println ("The program terminates.");
-            System.exit(0); //exit the whole program.
-        }  
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Stores an account, or replaces the id and counts of a stored one, and
+     * keeps the indexes and the user table up to date. Called with the write lock held.
+     * 
+     * @return int - the number of the account in the user store
+     */
+    private int storeAccount(String name, long userId, int tweetCount, int storyCount){
+        int old = userStore.find(name);
+        if (old != -1) { //the account was listed again, take it out of the indexes before it changes
+            for (UserIndex index : userIndexes.values()) {
+                index.remove(old);
+            }
+        }
+        int user = userStore.add(name, userId, tweetCount, storyCount);
+        for (UserIndex index : userIndexes.values()) {
+            index.add(user);
+        }
+        if (old == -1) {
+            synchronized (this) {
+                //the table holds views, so only new accounts need to be put in it
+                if (userTable != null) {
+                    userTable.put(name, userStore.view(user));
+                }
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Reads new or changed account rows from a file in the format of the
+     * accounts file, header line included, and patches the graph with them
+     * in place: new accounts are added, existing accounts get the tweet and
+     * story counts of their row and an edge to every listed story they are
+     * not linked to yet. Stories missing from a row are kept. Queries keep
+     * reading the last published graph until all the rows are in, then a
+     * new version is published if anything changed.
+     * 
+     * @param Path - the file of new or changed rows
+     * @return DeltaReport - the users and stories that changed
+     */
+    public DeltaReport applyDelta(Path delta){
+        DeltaReport report = new DeltaReport();
+        TSVIngester ingester = new TSVIngester(delta);
+        try {
+            ingester.ingest();
+        }
+        catch (FileNotFoundException e) {
+            System.out.println ("The file " + delta + " was not found.");
+            return report;
+        }
+        catch (IOException e) {
+            System.out.println ("The file " + delta + " could not be read: " + e);
+            return report;
+        }
+        for (String error : ingester.getErrors()) {
+            System.out.println ("Format error in input file " + delta + ", " + error);
+            System.out.println ("This account is ignored");
+        }
+        writeLock.lock();
+        try {
+            for (TSVIngester.Row row : ingester.getRows()) {
+                applyRow(row, report);
+            }
+        }
+        finally {
+            try {
+                if (!report.isEmpty()) {
+                    report.setVersion(publish());
+                }
+            }
+            finally {
+                writeLock.unlock();
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Patches the graph with one row of a delta, recording the changes in
+     * the report. Called with the write lock held.
+     */
+    private void applyRow(TSVIngester.Row row, DeltaReport report){
+        String name = row.name;
+        int old = userStore.find(name);
+        if (old == -1) {
+            graphChanged();
+            mutableGraph().addVertex(name);
+            storeAccount(name, row.userId, row.tweetCount, row.storyCount);
+            report.userAdded(name);
+        }
+        else if (userStore.getUserId(old) != row.userId || userStore.getTweetCount(old) != row.tweetCount
+                 || userStore.getStoryCount(old) != row.storyCount) {
+            graphChanged();
+            storeAccount(name, row.userId, row.tweetCount, row.storyCount);
+            report.userChanged(name);
+        }
+        for (long id : row.getStoryIds()) {
+            if (linkStory(name, id, report) && old != -1) {
+                report.userChanged(name);
+            }
+        }
+    }
+
+    /**
+     * Adds an edge between a user in the graph and a story, adding the
+     * story if it is new, unless they are linked already. Called with the write lock held.
+     * 
+     * @return boolean - true if an edge was added
+     */
+    private boolean linkStory(String name, long storyId, DeltaReport report){
+        int known = storyRegistry.size();
+        int number = storyRegistry.register(storyId);
+        String story = storyRegistry.getLabel(number);
+        if (number == known) { //a new story
+            graphChanged();
+            mutableGraph().addVertex(story);
+            stories.add(story);
+            report.storyAdded(story);
+        }
+        else if (mutableGraph().isArc(name, story)) {
+            return false;
+        }
+        else {
+            report.storyChanged(story);
+        }
+        graphChanged();
+        mutableGraph().addEdge(name, story);
+        report.edgeAdded();
+        return true;
+    }
+
+    /**
+     * Adds a batch of share events to the graph. Every event counts as one
+     * more tweet of its account, and a story the account had not shared
+     * before as one more story; accounts and stories not in the graph yet
+     * are added. The batch is not published: queries keep reading the last
+     * published version until publish() is called, so that a stream of
+     * small batches does not freeze the whole graph after each of them.
+     * 
+     * @param List<ShareEvent> - the events, in the order they happened
+     * @return DeltaReport - the users and stories that changed, with no version yet
+     */
+    public DeltaReport applyEvents(List<ShareEvent> events){
+        DeltaReport report = new DeltaReport();
+        if (events.isEmpty()) {
+            return report;
+        }
+        //screen name -> tweets and stories to add, then the latest user id
+        LinkedHashMap<String,long[]> added = new LinkedHashMap<String,long[]>();
+        writeLock.lock();
+        try {
+            for (ShareEvent event : events) {
+                String name = event.getName();
+                long[] counts = added.get(name);
+                if (counts == null) {
+                    if (!userStore.contains(name)) {
+                        graphChanged();
+                        mutableGraph().addVertex(name);
+                        storeAccount(name, event.getUserId(), 0, 0);
+                        report.userAdded(name);
+                    }
+                    else {
+                        report.userChanged(name);
+                    }
+                    counts = new long[3];
+                    added.put(name, counts);
+                }
+                counts[0]++;
+                counts[2] = event.getUserId();
+                if (linkStory(name, event.getStoryId(), report)) {
+                    counts[1]++;
+                }
+            }
+            //one update per account, so the indexes are not changed once per event
+            for (Map.Entry<String,long[]> entry : added.entrySet()) {
+                int u = userStore.find(entry.getKey());
+                long[] counts = entry.getValue();
+                storeAccount(entry.getKey(), counts[2], (int) (userStore.getTweetCount(u) + counts[0]),
+                             (int) (userStore.getStoryCount(u) + counts[1]));
+            }
+            graphChanged();
+        }
+        finally {
+            writeLock.unlock();
+        }
+        return report;
+    }
+
+    /**
+     * Returns the graph that writers change, building it from the published
+     * version the first time a graph loaded from a snapshot, or built by
+     * addRows, is changed.
+     * Called with the write lock held.
+     * 
+     * @return ConnectedGraph<String> - the graph
+     */
+    private ConnectedGraph<String> mutableGraph(){
+        if (RAT == null) {
+            CompactGraph<String> g = versions.getCurrent().getGraph();
+            int[] offsets = g.getOffsets();
+            int[] targets = g.getTargets();
+            ConnectedGraph<String> graph = new ConnectedGraph<String>(true); //keep predecessors for the story queries
+            for (int v = 0; v < g.getNumVertices(); v++) {
+                graph.addVertex(g.getVertex(v));
+            }
+            //the arcs in the same order, so freezing gives back the same graph
+            for (int v = 0; v < g.getNumVertices(); v++) {
+                for (int k = offsets[v]; k < offsets[v+1]; k++) {
+                    graph.addArcAt(v, targets[k]);
+                }
+            }
+            RAT = graph;
+        }
+        return RAT;
+    }
+
+    /**
+     * Notes that there are changes to publish, must be called with the write
+     * lock held whenever RAT, the accounts or the stories change
+     */
+    private void graphChanged(){
+        dirty = true;
+    }
+
+    /**
+     * Returns the number of the published version of the graph, which
+     * changes whenever a new version is published. Results computed from
+     * the graph can be kept as long as the version stays the same.
+     * 
+     * @return int - the current version
+     */
+    public int getVersion(){
+        return (int) versions.getCurrentVersion();
+    }
+
+    /**
+     * Makes the changes made to the graph so far the version that queries
+     * read: the graph is frozen into a compact copy and the counts and
+     * indexes of the accounts are copied with it. Readers holding a pin on
+     * an older version keep it. Waits for a writer that is changing the graph.
+     * 
+     * @return long - the number of the current version, new if there were changes
+     */
+    public long publish(){
+        writeLock.lock();
+        try {
+            if (dirty) {
+                dirty = false;
+                //a graph loaded from a snapshot or built by addRows, and not changed since, is published as it is
+                CompactGraph<String> graph = (RAT == null) ? versions.getCurrent().getGraph() : RAT.freeze();
+                versions.publish(new RATVersion(graph, userStore, userIndexes));
+            }
+            return versions.getCurrentVersion();
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Pins the current version of the graph, so that a series of queries
+     * sees one consistent graph and set of accounts while rows are being
+     * added. The pin must be closed when done; a version no pin holds any
+     * more is let go.
+     * 
+     * @return VersionManager.Pin<RATVersion> - a pin on the current version
+     */
+    public VersionManager.Pin<RATVersion> pinVersion(){
+        return versions.pin();
+    }
+
+    /**
+     * gets the versions of the graph that have been published
+     * 
+     * @return VersionManager<RATVersion> - the versions
+     */
+    public VersionManager<RATVersion> getVersions(){
+        return versions;
+    }
+
+    /**
+     * Returns a compact, read-only copy of the RAT graph, from the current
+     * version. Changes are seen once they are published.
+     * 
+     * @return CompactGraph<String> with the same vertices and edges as the RAT graph
+     */
+    public CompactGraph<String> getCompactGraph(){
+        return versions.getCurrent().getGraph();
+    }
+
+    /**
+     * Returns the RAT graph split into its two sides, users and stories,
+     * each with its own dense ids, from the current version. Built the first
+     * time it is needed and kept with the version.
+     * 
+     * @return BipartiteGraph<String> - the users, the stories and the arcs between them
+     */
+    public BipartiteGraph<String> getBipartiteGraph(){
+        return versions.getCurrent().getBipartiteGraph();
+    }
+
+    /**
+     * checks whether a vertex of the graph is a story
+     * 
+     * @param String - a vertex
+     * @return boolean - true if it is a story, false if it is a user or not in the graph
+     */
+    public boolean isStory(String vertex){
+        return getBipartiteGraph().isStory(vertex);
+    }
+
+    /**
+     * Returns the connected components of the current version of the RAT
+     * graph, computed once per version
+     * 
+     * @return ConnectedComponents - the components of getCompactGraph()
+     */
+    public ConnectedComponents ratComponents(){
+        return versions.getCurrent().getComponents();
+    }
+
+    /**
+     * Returns true if there is a path between two users or stories. The
+     * components are labelled once per version, so this does not traverse
+     * the graph.
+     * 
+     * @param String - a user or story
+     * @param String - another user or story
+     * @return boolean - true if both are in the same connected component
+     */
+    public boolean inSameComponent(String v1, String v2){
+        try (VersionManager.Pin<RATVersion> pin = pinVersion()) {
+            CompactGraph<String> g = pin.get().getGraph();
+            int i1 = g.getIndex(v1);
+            int i2 = g.getIndex(v2);
+            if (i1 == -1 || i2 == -1) {
+                return false;
+            }
+            ConnectedComponents cc = pin.get().getComponents();
+            return cc.getComponent(i1) == cc.getComponent(i2);
+        }
+    }
+
+    /**
+     * Returns the number of users and stories in the connected component of a vertex
+     * 
+     * @param String - a user or story
+     * @return int - the size of its component, 0 if it is not in the graph
+     */
+    public int componentSizeOf(String vertex){
+        try (VersionManager.Pin<RATVersion> pin = pinVersion()) {
+            int v = pin.get().getGraph().getIndex(vertex);
+            if (v == -1) {
+                return 0;
+            }
+            ConnectedComponents cc = pin.get().getComponents();
+            return cc.getSize(cc.getComponent(v));
+        }
+    }
 
+    /**
+     * Returns the vertices of the largest connected component of the RAT graph
+     * 
+     * @return LinkedList<String> - the users and stories of the largest component
+     */
+    public LinkedList<String> largestComponent(){
+        LinkedList<String> members = new LinkedList<String>();
+        try (VersionManager.Pin<RATVersion> pin = pinVersion()) {
+            ConnectedComponents cc = pin.get().getComponents();
+            if(cc.getLargest() == -1){
+                return members;
+            }
+            CompactGraph<String> g = pin.get().getGraph();
+            for(int v : cc.getMembers(cc.getLargest())){
+                members.add(g.getVertex(v));
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Returns the number of neighbours of a vertex, i.e. the number of stories
+     * of a user, or the number of users of a story
+     * 
+     * @param String - a user or story in the graph
+     * @return int - the degree of the vertex, 0 if it is not in the graph
+     */
+    public int getRatDegree(String vertex){
+        return getCompactGraph().getOutDegree(vertex);
+    }
+
+    /**
+     * Returns the number of vertices with an arc to the given vertex, i.e. the
+     * number of users of a story
+     * 
+     * @param String - a user or story in the graph
+     * @return int - the in-degree of the vertex, 0 if it is not in the graph
+     */
+    public int getRatInDegree(String vertex){
+        return getCompactGraph().getInDegree(vertex);
     }
 
     /** 
@@ -102,7 +764,7 @@ public class RATgraph
      *
      * */
     public LinkedList<String> getRatSuccessors(String vertex){
-        return RAT.getSuccessors(vertex);
+        return getCompactGraph().getSuccessors(vertex);
     }
 
     /** 
@@ -115,7 +777,142 @@ public class RATgraph
      * 
      * */
     public LinkedList<String> getRatPredecessors(String vertex){
-        return RAT.getPredecessors(vertex);
+        return getCompactGraph().getPredecessors(vertex);
+    }
+
+    /**
+     * Returns the k users involved with the most stories, most first.
+     * Users with the same number of stories are listed in the order they
+     * were added to the graph.
+     * 
+     * @param int - the number of users wanted
+     * @return LinkedList<String> - screen names of at most k users
+     */
+    public LinkedList<String> topUsersByStories(int k){
+        BipartiteGraph<String> bg = getBipartiteGraph();
+        LinkedList<String> top = new LinkedList<String>();
+        for(int u : TopK.parallelTop(bg.getUserDegrees(), k)){
+            top.add(bg.getUser(u));
+        }
+        return top;
+    }
+
+    /**
+     * Returns the k users with the highest tweet counts, highest first.
+     * Users with the same tweet count are listed in the order they were
+     * added to the graph.
+     * 
+     * @param int - the number of users wanted
+     * @return LinkedList<String> - screen names of at most k users
+     */
+    public LinkedList<String> topUsersByTweets(int k){
+        LinkedList<String> top = new LinkedList<String>();
+        try (VersionManager.Pin<RATVersion> pin = pinVersion()) {
+            BipartiteGraph<String> bg = pin.get().getBipartiteGraph();
+            for(int u : TopK.parallelTop(pin.get().getTweetCounts(), k)){
+                top.add(bg.getUser(u));
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Returns the k stories involving the most distinct users, most first. Stories
+     * with the same audience are listed in the order they were first read.
+     * 
+     * @param int - the number of stories wanted
+     * @return LinkedList<String> - ids of at most k stories
+     */
+    public LinkedList<String> topStoriesByAudience(int k){
+        BipartiteGraph<String> bg = getBipartiteGraph();
+        LinkedList<String> top = new LinkedList<String>();
+        for(int s : TopK.parallelTop(bg.getStoryDegrees(), k)){
+            top.add(bg.getStory(s));
+        }
+        return top;
+    }
+
+    /**
+     * Returns the co-story projection of the graph: users are linked when
+     * they shared the same story, weighted by the number of stories they
+     * share. Computed in parallel over the current version of the graph.
+     * 
+     * @param int - the lowest number of shared stories for a link to be kept
+     * @param int - the most links kept per user, the heaviest; Integer.MAX_VALUE for all
+     * @return CoStoryProjection<String> - the weighted links between users
+     */
+    public CoStoryProjection<String> coStoryProjection(int minWeight, int k){
+        return new CoStoryProjection<String>(getBipartiteGraph(), minWeight, k);
+    }
+
+    /**
+     * Returns the users who shared the most stories with a user, most shared first.
+     * 
+     * @param String - a user
+     * @param int - the number of users wanted
+     * @return LinkedList<String> - screen names of at most k users
+     */
+    public LinkedList<String> coStoryPartners(String user, int k){
+        return CoStoryProjection.partnersOf(getBipartiteGraph(), user, 1, k);
+    }
+
+    /**
+     * Adds a sorted index of the accounts by a numeric attribute. The index
+     * is filled with the accounts already in the graph and kept up to date
+     * as accounts are added; a new version is published with it.
+     * 
+     * @param String - the name of the attribute, used to get the index back
+     * @param ToIntFunction<TwitterUser> - gives the attribute of an account
+     */
+    public void addUserIndex(String name, ToIntFunction<TwitterUser> attribute){
+        writeLock.lock();
+        try {
+            UserIndex index = new UserIndex(name, userStore, attribute);
+            for (int user = 0; user < userStore.size(); user++) {
+                index.add(user);
+            }
+            userIndexes.put(name, index);
+            graphChanged();
+            publish();
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * gets a sorted index of the accounts of the current version; "tweetCount"
+     * and "storyCount" are always there
+     * 
+     * @param String - the name of the attribute
+     * @return UserIndex - a read-only index, null if there is none by that name
+     */
+    public UserIndex getUserIndex(String name){
+        return versions.getCurrent().getUserIndex(name);
+    }
+
+    /**
+     * Returns the accounts whose tweet count is between low and high, both
+     * included, in increasing order of tweet count.
+     * 
+     * @param int - the lowest tweet count
+     * @param int - the highest tweet count
+     * @return LinkedList<TwitterUser> - the accounts
+     */
+    public LinkedList<TwitterUser> usersByTweetCount(int low, int high){
+        return getUserIndex("tweetCount").range(low, high);
+    }
+
+    /**
+     * Returns the accounts whose story count is between low and high, both
+     * included, in increasing order of story count.
+     * 
+     * @param int - the lowest story count
+     * @param int - the highest story count
+     * @return LinkedList<TwitterUser> - the accounts
+     */
+    public LinkedList<TwitterUser> usersByStoryCount(int low, int high){
+        return getUserIndex("storyCount").range(low, high);
     }
 
     /** 
@@ -125,7 +922,7 @@ public class RATgraph
      * @return LinkedList<String> of the path of the DFS
      * */
     public LinkedList<String> ratDFS(String vertex){
-        return RAT.DFS(vertex);
+        return getCompactGraph().DFS(vertex);
     }
 
     /** 
@@ -135,64 +932,106 @@ public class RATgraph
      * @return LinkedList<String> of the path of the BFS 
      * */
     public LinkedList<String> ratBFS(String vertex){
-        return RAT.BFS(vertex);
+        return getCompactGraph().BFS(vertex);
+    }
+
+    /** 
+     * returns the vertices reached by a breadth first traversal from the given
+     * vertex, level by level. The parallel traversal lists each level in
+     * vertex index order, so its output is the same on every run.
+     * 
+     * @param the vertex from which the breadth first traversal should begin 
+     * @param true to run the traversal on all cores
+     * @return LinkedList<String> of the path of the BFS 
+     * */
+    public LinkedList<String> ratBFS(String vertex, boolean parallel){
+        if(!parallel){
+            return ratBFS(vertex);
+        }
+        CompactGraph<String> g = getCompactGraph();
+        LinkedList<String> path = new LinkedList<String>();
+        int source = g.getIndex(vertex);
+        if(source == -1){
+            return path;
+        }
+        ParallelBFS bfs = new ParallelBFS(g);
+        bfs.setDeterministic(true);
+        bfs.search(source);
+        for(int v : bfs.getOrder()){
+            path.add(g.getVertex(v));
+        }
+        return path;
+    }
+
+    /**
+     * Computes the hop distance from the given vertex to every vertex of the
+     * graph with a parallel breadth first search.
+     * 
+     * @param String - the vertex the distances are measured from
+     * @return int[] - the distance of every vertex, indexed like the vertices of
+     * getCompactGraph(), -1 for unreachable vertices; null if the vertex is not in the graph
+     */
+    public int[] ratDistances(String vertex){
+        CompactGraph<String> g = getCompactGraph();
+        int source = g.getIndex(vertex);
+        if(source == -1){
+            return null;
+        }
+        ParallelBFS bfs = new ParallelBFS(g);
+        bfs.search(source);
+        return bfs.getDistances();
     }
        
 
     /**
-     * checks diameter of a BFS search between two nodes
+     * returns the number of hops on a shortest path between two nodes. The
+     * search grows from both nodes at once and stops when the two sides meet.
      * 
      * @param  String - starting node, String - target node
-     * @return int - the diameter of the search from a given node to the target
+     * @return int - the hop distance from a given node to the target,
+     * -1 if there is no path between them
      */
     public int diamBetween(String v1, String v2){
-        int diamCount = 0;
-        Set<String> keys = users.keySet();
-        Vector<String> s = stories;
-        LinkedList<String> b = ratBFS(v1);
-        //initialize a boolean to keep track of changes in level
-        boolean isUser;
-        if(keys.contains(b.get(0))){
-            isUser = true;
-        }else{
-            isUser = false; 
-        }
-
-        for(int i = 0; i < b.size(); i++){
-            String current = b.get(i);
-            //when it switches from a story to a user add to the diameter
-            //switch boolean to true because it switched to a user level
-            if(keys.contains(current)&&isUser==false){
-                diamCount+=1;
-                isUser = true;
+        return getCompactGraph().distance(v1, v2);
+    }
 
-                
-            }
-            //when it switches from a user to a story add to the diameter
-            //switch boolean to false because it switched to a story level
-            else if(s.contains(current)&&isUser==true)
-            {
-                diamCount+=1;
-                isUser = false;
+    /**
+     * returns a shortest path between two nodes
+     * 
+     * @param  String - starting node, String - target node
+     * @return LinkedList<String> - the nodes on the path, from v1 to v2,
+     * null if there is no path between them
+     */
+    public LinkedList<String> ratPath(String v1, String v2){
+        return getCompactGraph().shortestPath(v1, v2);
+    }
 
+    /**
+     * gets the hashtable of users. The accounts are kept in a UserStore,
+     * and the table holds views of them. It is made the first time it is
+     * asked for and accounts added later are put in it.
+     * 
+     * @return Hashtable<String,TwitterUser> - users
+     */
+    public synchronized Hashtable<String,TwitterUser> getUserTable(){
+        if(userTable == null){
+            Hashtable<String,TwitterUser> table = new Hashtable<String,TwitterUser>(Math.max(300, userStore.size() * 2));
+            for(int u = 0; u < userStore.size(); u++){
+                TwitterUser user = userStore.view(u);
+                table.put(user.getName(), user);
             }
-            //when the target is found return the diameter
-            if( current.equals(v2)){
-                return diamCount;
-            }
-
+            userTable = table;
         }
-
-        return diamCount;
+        return userTable;
     }
 
     /**
-     * gets the hashtable of users
+     * gets the accounts of the graph, stored column by column
      * 
-     * @return Hashtable<String,TwitterUser> - users
+     * @return UserStore - the accounts, numbered in the order they were added
      */
-    public Hashtable<String,TwitterUser> getUserTable(){
-        return users;
+    public UserStore getUserStore(){
+        return userStore;
     }
 
     /**
@@ -204,11 +1043,36 @@ public class RATgraph
         return stories;
     }
 
+    /**
+     * gets the registry of stories, which maps every story id to its
+     * position in getStories()
+     * 
+     * @return StoryRegistry - the stories by id
+     */
+    public StoryRegistry getStoryRegistry(){
+        return storyRegistry;
+    }
+
     /**
      * Writes the RAT graph to a tgf file
      */
     public void RATToTGF(String f){
-        RAT.saveToTGF(f);
+        getCompactGraph().saveToTGF(f);
+    }
+
+    /**
+     * Writes the RAT graph to a file in the given format. The file is
+     * gzipped if its name ends in ".gz".
+     *
+     * @param String - the name of the file
+     * @param GraphExporter.Format - TGF, EDGE_LIST, DOT or GRAPHML
+     */
+    public void exportRAT(String f, GraphExporter.Format format){
+        try{
+            new GraphExporter<String>(getCompactGraph()).export(f, format);
+        }catch(IOException e){
+            System.out.println(e);
+        }
     }
 
     /** 
@@ -219,11 +1083,18 @@ public class RATgraph
      * 
      *  */
     public String toString(){
-        String s = RAT.toString();
-        return s;
+        CompactGraph<String> g = getCompactGraph();
+        StringBuilder s = new StringBuilder(g.toString());
+        //the vertices again at the end, as AdjListsGraph lists them
+        s.append("\n[");
+        for(int v = 0; v < g.getNumVertices(); v++){
+            s.append((v == 0) ? "" : ", ").append(g.getVertex(v));
+        }
+        s.append("]");
+        return s.toString();
     }
 
-    public static void main(String[] args){
+    public static void main(String[] args) throws IOException{
         RATgraph r = new RATgraph("All_Russian-Accounts-in-TT-stories.csv.tsv");
         Set<String> keys = r.getUserTable().keySet();
         Vector<String> s = r.getStories();
@@ -234,6 +1105,85 @@ public class RATgraph
         System.out.println("Result: " +r.diamBetween("Jenn_Abrams","7371058705"));
         System.out.println("Checking dist from Jenn_Abrams to AmelieBaldwin exp: 2");
         System.out.println("Result: " +r.diamBetween("Jenn_Abrams","AmelieBaldwin"));
+        System.out.println("Checking path from Jenn_Abrams to AmelieBaldwin exp: 3 nodes");
+        System.out.println("Result: " +r.ratPath("Jenn_Abrams","AmelieBaldwin"));
+        System.out.println("Checking parallel BFS reaches as many vertices as BFS exp: " + b.size());
+        System.out.println("Result: " + r.ratBFS("Jenn_Abrams", true).size());
+        int[] dist = r.ratDistances("Jenn_Abrams");
+        CompactGraph<String> g = r.getCompactGraph();
+        System.out.println("Checking hop distance from Jenn_Abrams to AmelieBaldwin exp: 2");
+        System.out.println("Result: " + dist[g.getIndex("AmelieBaldwin")]);
+        System.out.println("Checking size of the largest component exp: " + r.ratDFS("Jenn_Abrams").size());
+        System.out.println("Result: " + r.largestComponent().size()
+            + " in " + r.ratComponents().getNumComponents() + " components");
+        BipartiteGraph<String> bg = r.getBipartiteGraph();
+        System.out.println("Checking users and stories exp: " + keys.size() + " " + s.size());
+        System.out.println("Result: " + bg.getNumUsers() + " " + bg.getNumStories());
+        System.out.println("Checking isStory(7371058705) exp: true, isStory(Jenn_Abrams) exp: false");
+        System.out.println("Result: " + r.isStory("7371058705") + ", " + r.isStory("Jenn_Abrams"));
+        System.out.println("Checking component size of AmelieBaldwin exp: 896");
+        System.out.println("Result: " + r.componentSizeOf("AmelieBaldwin"));
+        String mostActive = null;
+        for(String key : keys){
+            if(mostActive == null || r.getUserTable().get(key).getTweetCount() > r.getUserTable().get(mostActive).getTweetCount()){
+                mostActive = key;
+            }
+        }
+        System.out.println("Checking top user by tweets exp: " + mostActive);
+        System.out.println("Result: " + r.topUsersByTweets(3).getFirst());
+        LinkedList<String> top = r.topStoriesByAudience(5);
+        System.out.println("Checking top 5 stories by audience are in decreasing order exp: true");
+        boolean decreasing = top.size() == 5;
+        for(int i = 1; i < top.size(); i++){
+            decreasing = decreasing && r.getRatInDegree(top.get(i-1)) >= r.getRatInDegree(top.get(i));
+        }
+        System.out.println("Result: " + decreasing);
+        int between = 0;
+        for(String key : keys){
+            int t = r.getUserTable().get(key).getTweetCount();
+            if(t >= 100 && t <= 500){
+                between++;
+            }
+        }
+        System.out.println("Checking accounts with 100 to 500 tweets exp: " + between);
+        System.out.println("Result: " + r.usersByTweetCount(100, 500).size());
+        System.out.println("Checking the 100th percentile of story counts is the largest exp: "
+            + r.getUserTable().get(r.topUsersByStories(1).getFirst()).getStoryCount());
+        System.out.println("Result: " + r.getUserIndex("storyCount").percentileValue(100));
+        CoStoryProjection<String> p = r.coStoryProjection(1, Integer.MAX_VALUE);
+        String partner = r.coStoryPartners("Jenn_Abrams", 1).getFirst();
+        int shared = 0;
+        for(String story : r.getRatSuccessors("Jenn_Abrams")){
+            if(r.getRatSuccessors(partner).contains(story)){
+                shared++;
+            }
+        }
+        System.out.println("Checking stories shared by Jenn_Abrams and " + partner + " exp: " + shared);
+        System.out.println("Result: " + p.getWeight(p.getBipartiteGraph().getUserId("Jenn_Abrams"),
+            p.getBipartiteGraph().getUserId(partner)));
+        File repeated = File.createTempFile("repeated", ".tsv");
+        try (PrintWriter out = new PrintWriter(repeated)) {
+            out.println("name\tid\ttweets\tstories\tstoryIds");
+            out.println("a\t1\t1\t2\t100,100"); // the same story listed twice
+            out.println("b\t2\t1\t1\t101");
+            out.println("c\t3\t1\t1\t101");
+        }
+        RATgraph small = new RATgraph(repeated.toString());
+        System.out.println("Checking a story listed twice by one user has audience 1 exp: 1");
+        System.out.println("Result: " + small.getRatInDegree("100"));
+        System.out.println("Checking the most popular story counts distinct users exp: 101");
+        System.out.println("Result: " + small.topStoriesByAudience(1).getFirst());
+        RATgraph oneByOne = RATgraph.empty(repeated.toString());
+        TSVIngester ingester = new TSVIngester(repeated.toString());
+        for (TSVIngester.Row row : ingester.ingest()) {
+            oneByOne.addAccount(row.name, row.userId, row.tweetCount, row.storyCount, row.getStoryIds());
+        }
+        oneByOne.publish();
+        System.out.println("Checking reading in one go gives the graph of adding accounts one at a time exp: true");
+        System.out.println("Result: " + (Arrays.equals(small.getCompactGraph().getOffsets(), oneByOne.getCompactGraph().getOffsets())
+            && Arrays.equals(small.getCompactGraph().getTargets(), oneByOne.getCompactGraph().getTargets())
+            && small.getCompactGraph().BFS("a").equals(oneByOne.getCompactGraph().BFS("a"))));
+        repeated.delete();
         
 
        
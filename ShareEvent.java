@@ -0,0 +1,65 @@
+/**
+ * One share of a story by a twitter account, as seen by the event stream:
+ * the screen name and user id of the account and the id of the story.
+ * Every event counts as one tweet of the account.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+public class ShareEvent
+{
+    // instance variables
+    private final String name;
+    private final long userId;
+    private final long storyId;
+
+    /**
+     * Constructor for objects of class ShareEvent
+     *
+     * @param the screen name
+     * @param the user id
+     * @param the id of the shared story
+     */
+    public ShareEvent(String name, long userId, long storyId)
+    {
+        this.name = name;
+        this.userId = userId;
+        this.storyId = storyId;
+    }
+
+    /**
+     * gets the screen name of the account
+     *
+     * @return String - the screen name
+     */
+    public String getName(){
+        return name;
+    }
+
+    /**
+     * gets the user id of the account
+     *
+     * @return long - the user id
+     */
+    public long getUserId(){
+        return userId;
+    }
+
+    /**
+     * gets the id of the shared story
+     *
+     * @return long - the story id
+     */
+    public long getStoryId(){
+        return storyId;
+    }
+
+    /**
+     * Returns a string representation of the event
+     *
+     * @return String - the fields, tab separated as in an events file
+     */
+    public String toString(){
+        return name + "\t" + userId + "\t" + storyId;
+    }
+}
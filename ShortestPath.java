@@ -0,0 +1,157 @@
+/**
+ * Point to point shortest path queries on a CompactGraph, answered with a
+ * bidirectional breadth first search: one search grows forward from the
+ * source along arcs, the other grows backward from the target along
+ * reversed arcs, always expanding the smaller of the two frontiers by one
+ * level, and both stop as soon as they meet. Only the vertices near the
+ * two endpoints are touched, not the whole component.
+ *
+ * The working arrays are allocated once and reused; a vertex counts as
+ * seen only if it carries the stamp of the current query, so nothing has
+ * to be cleared between queries. An instance is not thread safe.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.util.Arrays;
+public class ShortestPath
+{
+    // instance variables
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] inOffsets;
+    private final int[] inTargets;
+
+    private final int[] seenForward; // query stamp when the forward search reached the vertex
+    private final int[] seenBackward;
+    private final int[] distForward;
+    private final int[] distBackward;
+    private final int[] parentForward; // previous vertex on the path from the source
+    private final int[] parentBackward; // next vertex on the path to the target
+    private final int[] queueForward;
+    private final int[] queueBackward;
+    private int stamp;
+
+    private int meeting; // where the two searches met in the last query
+
+    /**
+     * Constructor for objects of class ShortestPath
+     *
+     * @param the graph to search
+     */
+    public ShortestPath(CompactGraph<?> g)
+    {
+        offsets = g.getOffsets();
+        targets = g.getTargets();
+        inOffsets = g.getInOffsets();
+        inTargets = g.getInTargets();
+        int n = g.getNumVertices();
+        seenForward = new int[n];
+        seenBackward = new int[n];
+        distForward = new int[n];
+        distBackward = new int[n];
+        parentForward = new int[n];
+        parentBackward = new int[n];
+        queueForward = new int[n];
+        queueBackward = new int[n];
+    }
+
+    /**
+     * Returns the number of hops on a shortest path between two vertices.
+     *
+     * @param the index of the source
+     * @param the index of the target
+     * @return the hop distance, or -1 if the target cannot be reached
+     */
+    public int distance(int source, int target){
+        if(stamp == Integer.MAX_VALUE){ // stamps ran out, start over
+            Arrays.fill(seenForward, 0);
+            Arrays.fill(seenBackward, 0);
+            stamp = 0;
+        }
+        stamp++;
+        meeting = -1;
+        seenForward[source] = stamp;
+        distForward[source] = 0;
+        parentForward[source] = -1;
+        seenBackward[target] = stamp;
+        distBackward[target] = 0;
+        parentBackward[target] = -1;
+        if(source == target){
+            meeting = source;
+            return 0;
+        }
+        queueForward[0] = source;
+        queueBackward[0] = target;
+        // the current level of each search is queue[levelStart .. tail-1]
+        int startF = 0, tailF = 1;
+        int startB = 0, tailB = 1;
+        int best = Integer.MAX_VALUE;
+        while(startF < tailF && startB < tailB){
+            boolean forward = (tailF - startF) <= (tailB - startB);
+            int[] off = forward ? offsets : inOffsets;
+            int[] targ = forward ? targets : inTargets;
+            int[] seen = forward ? seenForward : seenBackward;
+            int[] dist = forward ? distForward : distBackward;
+            int[] parent = forward ? parentForward : parentBackward;
+            int[] queue = forward ? queueForward : queueBackward;
+            int[] otherSeen = forward ? seenBackward : seenForward;
+            int[] otherDist = forward ? distBackward : distForward;
+            int tail = forward ? tailF : tailB;
+            int levelEnd = tail;
+            //expand one whole level, then stop if the searches have met
+            for(int i = forward ? startF : startB; i < levelEnd; i++){
+                int v = queue[i];
+                for(int k = off[v]; k < off[v+1]; k++){
+                    int w = targ[k];
+                    if(seen[w] != stamp){
+                        seen[w] = stamp;
+                        dist[w] = dist[v] + 1;
+                        parent[w] = v;
+                        queue[tail++] = w;
+                        if(otherSeen[w] == stamp && dist[w] + otherDist[w] < best){
+                            best = dist[w] + otherDist[w];
+                            meeting = w;
+                        }
+                    }
+                }
+            }
+            if(forward){
+                startF = levelEnd;
+                tailF = tail;
+            }else{
+                startB = levelEnd;
+                tailB = tail;
+            }
+            if(best != Integer.MAX_VALUE){
+                return best;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a shortest path between two vertices.
+     *
+     * @param the index of the source
+     * @param the index of the target
+     * @return the indices of the vertices on the path, from source to target,
+     * or null if the target cannot be reached
+     */
+    public int[] path(int source, int target){
+        int d = distance(source, target);
+        if(d == -1){
+            return null;
+        }
+        int[] path = new int[d + 1];
+        int pos = distForward[meeting];
+        for(int v = meeting; v != -1; v = parentForward[v]){
+            path[pos--] = v;
+        }
+        pos = distForward[meeting] + 1;
+        for(int v = parentBackward[meeting]; v != -1; v = parentBackward[v]){
+            path[pos++] = v;
+        }
+        return path;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Keeps track of the stories of the RAT graph by their numeric ids. Each
+ * story id is stored as a primitive long and given a dense number
+ * 0, 1, 2, ... in the order the stories are registered; the lookup from
+ * id to number goes through an open-addressing LongIntHashMap, so checking
+ * whether a story is already known takes constant time.
+ *
+ * Every story also gets a single String label, created when it is first
+ * registered and shared by every edge that mentions the story, instead of
+ * one String per edge.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.util.Arrays;
+public class StoryRegistry
+{
+    // instance variables
+    private volatile LongIntHashMap numbers; // story id -> dense number; for a loaded registry, built the first time it is needed
+    private long[] ids; // dense number -> story id
+    private String[] labels; // dense number -> label used as the graph vertex
+    private int count;
+
+    /**
+     * Constructor for objects of class StoryRegistry
+     */
+    public StoryRegistry()
+    {
+        numbers = new LongIntHashMap(1024);
+        ids = new long[1024];
+        labels = new String[1024];
+    }
+
+    /**
+     * Constructor for objects of class StoryRegistry, with the given stories
+     * registered in order. The lookup from id to number is only built when
+     * it is first needed.
+     *
+     * @param long[] - the story ids; they must not repeat
+     */
+    StoryRegistry(long[] storyIds)
+    {
+        int capacity = Math.max(1024, storyIds.length);
+        ids = Arrays.copyOf(storyIds, capacity);
+        labels = new String[capacity];
+        for(int i = 0; i < storyIds.length; i++){
+            labels[i] = Long.toString(storyIds[i]);
+        }
+        count = storyIds.length;
+    }
+
+    /**
+     * Returns the lookup from story id to number, building it if needed.
+     */
+    private LongIntHashMap numbers(){
+        LongIntHashMap map = numbers;
+        if(map == null){
+            synchronized(this){
+                if(numbers == null){
+                    map = new LongIntHashMap(Math.max(1024, count));
+                    for(int i = 0; i < count; i++){
+                        map.put(ids[i], i);
+                    }
+                    numbers = map;
+                }
+                map = numbers;
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Registers a story, if it is not registered yet.
+     *
+     * @param long - the story id
+     * @return int - the dense number of the story
+     */
+    public int register(long storyId){
+        LongIntHashMap map = numbers();
+        int number = map.get(storyId);
+        if(number != -1){
+            return number;
+        }
+        if(count == ids.length){
+            ids = Arrays.copyOf(ids, count * 2);
+            labels = Arrays.copyOf(labels, count * 2);
+        }
+        number = count++;
+        ids[number] = storyId;
+        labels[number] = Long.toString(storyId);
+        map.put(storyId, number);
+        return number;
+    }
+
+    /**
+     * Returns the dense number of a story.
+     *
+     * @param long - the story id
+     * @return int - its number, -1 if the story is not registered
+     */
+    public int getNumber(long storyId){
+        return numbers().get(storyId);
+    }
+
+    /**
+     * checks whether a story is registered
+     *
+     * @param long - the story id
+     * @return boolean - true if it is registered
+     */
+    public boolean contains(long storyId){
+        return numbers().containsKey(storyId);
+    }
+
+    /**
+     * Returns the id of the story with the given number.
+     *
+     * @param int - a dense story number
+     * @return long - the story id
+     */
+    public long getId(int number){
+        return ids[number];
+    }
+
+    /**
+     * Returns the label of the story with the given number, the String
+     * used for the story in the graph and for display.
+     *
+     * @param int - a dense story number
+     * @return String - the story id as text
+     */
+    public String getLabel(int number){
+        return labels[number];
+    }
+
+    /**
+     * Returns the number of registered stories.
+     *
+     * @return int - the number of stories
+     */
+    public int size(){
+        return count;
+    }
+}
@@ -0,0 +1,355 @@
+/**
+ * Looks up the titles of TwitterTrails stories by story id.
+ *
+ * A title is fetched from a title page, whose address is a base URL followed
+ * by the story id. The base URL is normally the TwitterTrails site, but it can
+ * be any URL Java can open: a "file:" URL pointing at a directory of saved
+ * pages, or a server on localhost, which is how the main method tests it.
+ *
+ * Titles are kept in two caches. Recently used titles stay in memory, up to
+ * a fixed number, and every title ever fetched is appended to a cache file,
+ * one "id TAB title" line each, so they survive restarts. Only the position
+ * and length of every title in the file is kept in memory; the file is read
+ * once, buffered, to find them, then stays open, and a title is read back
+ * with one positioned read. A batch of ids can be fetched all at once, on a
+ * pool of threads, with a time limit. Close the resolver to close the file.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+public class StoryTitleResolver implements AutoCloseable
+{
+    /** the title page of the TwitterTrails site, without the story id */
+    public static final String TWITTER_TRAILS = "http://twittertrails.wellesley.edu/~trails/stories/title.php?id=";
+
+    // number of pages fetched at the same time
+    private static final int THREADS = 16;
+    // time limits, in milliseconds, to connect and to read one page
+    private static final int CONNECT_TIMEOUT = 5000;
+    private static final int READ_TIMEOUT = 10000;
+    // time limit, in milliseconds, for a whole batch
+    private static final long BATCH_TIMEOUT = 60000;
+
+    // the fetching threads of all the resolvers
+    private static final ExecutorService FETCHERS = Executors.newFixedThreadPool(THREADS, r -> {
+        Thread t = new Thread(r, "StoryTitleResolver fetcher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // instance variables
+    private final String baseUrl;
+    private final File cacheFile;
+    private final LinkedHashMap<String,String> recent; // in access order, least recently used first
+    private final Hashtable<String,long[]> onDisk = new Hashtable<String,long[]>(); // id -> position and length in bytes of its title in cacheFile
+    private FileChannel file; // cacheFile, opened when first needed
+
+    /**
+     * Constructor for a resolver of TwitterTrails titles.
+     *
+     * @param the cache file, created if it does not exist; null for no cache file
+     */
+    public StoryTitleResolver(String cacheFile)
+    {
+        this(TWITTER_TRAILS, cacheFile, 1024);
+    }
+
+    /**
+     * Constructor for objects of class StoryTitleResolver
+     *
+     * @param the address of the title pages; the story id is appended to it
+     * @param the cache file, created if it does not exist; null for no cache file
+     * @param the number of titles kept in memory
+     */
+    public StoryTitleResolver(String baseUrl, String cacheFile, int capacity)
+    {
+        this.baseUrl = baseUrl;
+        this.cacheFile = (cacheFile == null) ? null : new File(cacheFile);
+        recent = new LinkedHashMap<String,String>(capacity * 4 / 3 + 1, 0.75f, true){
+            protected boolean removeEldestEntry(Map.Entry<String,String> eldest){
+                return size() > capacity;
+            }
+        };
+        indexCacheFile();
+    }
+
+    /**
+     * Returns the title of a story, fetching it if it is in neither cache.
+     *
+     * @param String - id number of a story
+     * @return String - title of the story, "" if it could not be fetched
+     */
+    public String title(String id){
+        String title = cached(id);
+        if(title != null){
+            return title;
+        }
+        try{
+            return store(id, fetch(id));
+        }catch(IOException ex){
+            System.out.println(ex);
+            return "";
+        }
+    }
+
+    /**
+     * Returns the titles of several stories. The ones that are not cached
+     * are fetched at the same time; ids whose page could not be fetched
+     * in time are left out.
+     *
+     * @param Collection<String> - id numbers of stories
+     * @return Hashtable<String,String> - story id -> title
+     */
+    public Hashtable<String,String> titles(Collection<String> ids){
+        Hashtable<String,String> result = new Hashtable<String,String>();
+        LinkedHashSet<String> notCached = new LinkedHashSet<String>();
+        for(String id : ids){
+            String title = cached(id);
+            if(title != null){
+                result.put(id, title);
+            }else{
+                notCached.add(id);
+            }
+        }
+        if(notCached.isEmpty()){
+            return result;
+        }
+        List<String> missing = new ArrayList<String>(notCached);
+        List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+        for(String id : missing){
+            tasks.add(() -> fetch(id));
+        }
+        try{
+            List<Future<String>> pages = FETCHERS.invokeAll(tasks, BATCH_TIMEOUT, TimeUnit.MILLISECONDS);
+            for(int i = 0; i < missing.size(); i++){
+                try{
+                    result.put(missing.get(i), store(missing.get(i), pages.get(i).get()));
+                }catch(ExecutionException ex){
+                    System.out.println(ex.getCause());
+                }catch(CancellationException ex){
+                    System.out.println("timed out fetching the title of story " + missing.get(i));
+                }
+            }
+        }catch(InterruptedException ex){
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cached title of a story.
+     *
+     * @return the title, or null if it is in neither cache
+     */
+    private synchronized String cached(String id){
+        String title = recent.get(id);
+        if(title != null){
+            return title;
+        }
+        long[] where = onDisk.get(id);
+        if(where == null){
+            return null;
+        }
+        try{
+            ByteBuffer bytes = ByteBuffer.allocate((int) where[1]);
+            if(file().read(bytes, where[0]) != bytes.capacity()){
+                throw new IOException("short read");
+            }
+            title = new String(bytes.array(), StandardCharsets.UTF_8);
+        }catch(IOException ex){ // the file changed under us
+            onDisk.remove(id);
+            return null;
+        }
+        recent.put(id, title);
+        return title;
+    }
+
+    /**
+     * Puts a fetched title in both caches.
+     *
+     * @return the title
+     */
+    private synchronized String store(String id, String title){
+        recent.put(id, title);
+        if(cacheFile == null || onDisk.containsKey(id) || id.indexOf('\t') >= 0 || id.indexOf('\n') >= 0){
+            return title;
+        }
+        //a title is kept on one line
+        byte[] head = (id + "\t").getBytes(StandardCharsets.UTF_8);
+        byte[] text = title.replace('\n', ' ').replace('\r', ' ').getBytes(StandardCharsets.UTF_8);
+        ByteBuffer line = ByteBuffer.allocate(head.length + text.length + 1);
+        line.put(head).put(text).put((byte) '\n').flip();
+        try{
+            FileChannel out = file();
+            long pos = out.size();
+            while(line.hasRemaining()){
+                out.write(line, pos + line.position());
+            }
+            onDisk.put(id, new long[]{pos + head.length, text.length});
+        }catch(IOException ex){
+            System.out.println(ex);
+        }
+        return title;
+    }
+
+    /**
+     * Returns the cache file, opening it the first time.
+     */
+    private FileChannel file() throws IOException {
+        if(file == null){
+            file = FileChannel.open(cacheFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        return file;
+    }
+
+    /**
+     * Closes the cache file. Titles fetched afterwards open it again.
+     */
+    public synchronized void close(){
+        if(file != null){
+            try{
+                file.close();
+            }catch(IOException ex){
+                System.out.println(ex);
+            }
+            file = null;
+        }
+    }
+
+    /**
+     * Reads the position and length of every title in the cache file.
+     * Only the ids are kept; the titles are skipped.
+     */
+    private void indexCacheFile(){
+        if(cacheFile == null || !cacheFile.isFile()){
+            return;
+        }
+        try(InputStream in = new BufferedInputStream(new FileInputStream(cacheFile), 1 << 16)){
+            long pos = 0; // of the next byte read
+            byte[] id = new byte[64];
+            int idLength = 0;
+            long titleStart = -1; // -1 while reading the id of a line
+            int b;
+            while((b = in.read()) != -1){
+                pos++;
+                if(b == '\n'){
+                    if(titleStart > 0 && idLength > 0){
+                        onDisk.put(new String(id, 0, idLength, StandardCharsets.UTF_8), new long[]{titleStart, pos - 1 - titleStart});
+                    }
+                    idLength = 0;
+                    titleStart = -1;
+                }else if(titleStart == -1){
+                    if(b == '\t'){
+                        titleStart = pos;
+                    }else{
+                        if(idLength == id.length){
+                            id = Arrays.copyOf(id, idLength * 2);
+                        }
+                        id[idLength++] = (byte) b;
+                    }
+                }
+            }
+            //a last line cut short, by a crash while it was written, is left out
+        }catch(IOException ex){
+            System.out.println(ex);
+        }
+    }
+
+    /**
+     * Fetches the title page of a story. The first line of the page is a
+     * heading; the title is the rest of the page.
+     *
+     * @exception IOException thrown when the page cannot be read in time
+     */
+    private String fetch(String id) throws IOException {
+        URLConnection connection = new URL(baseUrl + id).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT);
+        connection.setReadTimeout(READ_TIMEOUT);
+        StringBuilder s = new StringBuilder();
+        try(BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))){
+            //move past the heading of the HTML doc with this line
+            String line = in.readLine();
+            while((line = in.readLine()) != null){
+                s.append(line);
+            }
+        }
+        return s.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("*****TESTING*****");
+        //a stand-in for the TwitterTrails site, that counts its requests
+        int[] requests = new int[1];
+        com.sun.net.httpserver.HttpServer server = com.sun.net.httpserver.HttpServer.create(
+            new java.net.InetSocketAddress("localhost", 0), 0);
+        server.createContext("/title", exchange -> {
+            synchronized(requests){
+                requests[0]++;
+            }
+            String id = exchange.getRequestURI().getQuery().substring(3);
+            byte[] page = ("<html>\nStory " + id + "\n").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, page.length);
+            exchange.getResponseBody().write(page);
+            exchange.close();
+        });
+        server.start();
+        String base = "http://localhost:" + server.getAddress().getPort() + "/title?id=";
+        File cache = File.createTempFile("titles", ".tsv");
+        cache.delete();
+        StoryTitleResolver resolver = new StoryTitleResolver(base, cache.getPath(), 2);
+        System.out.println("title(7) expecting: Story 7 result: " + resolver.title("7"));
+        resolver.title("7");
+        System.out.println("title(7) twice, requests expecting: 1 result: " + requests[0]);
+        java.util.List<String> ids = java.util.Arrays.asList("1", "2", "3", "7");
+        Hashtable<String,String> batch = resolver.titles(ids);
+        System.out.println("titles(1,2,3,7) expecting: Story 3 result: " + batch.get("3"));
+        System.out.println("requests after the batch expecting: 4 result: " + requests[0]);
+        //a new resolver finds the titles in the cache file
+        StoryTitleResolver reopened = new StoryTitleResolver(base, cache.getPath(), 2);
+        System.out.println("title(2) from the cache file expecting: Story 2 result: " + reopened.title("2"));
+        System.out.println("requests expecting: 4 result: " + requests[0]);
+        resolver.title("8");
+        StoryTitleResolver third = new StoryTitleResolver(base, cache.getPath(), 2);
+        System.out.println("title(8) written by the first resolver, read by a third expecting: Story 8 result: " + third.title("8"));
+        System.out.println("requests expecting: 5 result: " + requests[0]);
+        third.close();
+        reopened.close();
+        resolver.close();
+        server.stop(0);
+        //saved pages can be read from a directory instead
+        File dir = cache.getParentFile();
+        java.nio.file.Files.write(new File(dir, "story42").toPath(), "<html>\nSaved story".getBytes(StandardCharsets.UTF_8));
+        StoryTitleResolver local = new StoryTitleResolver(dir.toURI() + "story", null, 2);
+        System.out.println("title(42) from a file expecting: Saved story result: " + local.title("42"));
+        new File(dir, "story42").delete();
+        cache.delete();
+    }
+}
@@ -10,6 +10,9 @@
  * to create a graph of Strings, reading its vertices and arcs from a TGF file
  * 
  */
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public class StringGraphBuilder extends GraphBuilder<String>{
     /**
@@ -22,4 +25,20 @@ public class StringGraphBuilder extends GraphBuilder<String>{
     public String createOneThing(String s) {
         return new String(s); 
     }
-}
\ No newline at end of file
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("*****TESTING*****");
+        StringGraphBuilder builder = new StringGraphBuilder();
+        AdjListsGraph<String> tree = builder.build("Tree.tgf");
+        System.out.println("Tree.tgf vertices expecting: 7 result: " + tree.getNumVertices());
+        System.out.println("Tree.tgf arcs expecting: 6 result: " + tree.getNumArcs());
+        System.out.println("isArc(1,2) expecting: true result: " + tree.isArc("1","2"));
+        AdjListsGraph<String> rat = builder.build("ratGraph.tgf");
+        System.out.println("ratGraph.tgf vertices expecting: 896 result: " + rat.getNumVertices());
+        Path ids = Files.createTempFile("ids", ".tgf");
+        Files.write(ids, "1234567890123456789 a\n9223372036854775807 b\n#\n1234567890123456789 9223372036854775807\n".getBytes());
+        AdjListsGraph<String> big = builder.build(ids.toString());
+        System.out.println("19-digit vertex numbers, isArc(a,b) expecting: true result: " + big.isArc("a","b"));
+        Files.delete(ids);
+    }
+}
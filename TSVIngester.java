@@ -0,0 +1,372 @@
+/**
+ * Reads a file of Russian twitter accounts and their stories, in the format
+ * of All_Russian-Accounts-in-TT-stories.csv.tsv: a header line, then one
+ * line per account with its screen name, user id, tweet count, story count
+ * and a comma separated list of numeric story ids, separated by white space.
+ *
+ * The file is memory-mapped and split at line boundaries into chunks that
+ * are parsed in parallel, straight from the bytes. Rows with badly
+ * formatted numbers are left out and reported in a list of errors, with
+ * their line numbers. The rows come back in file order, ready to be merged
+ * into a graph in one go.
+ *
+ * User ids are read as numbers up to Long.MAX_VALUE, which covers every
+ * twitter id; leading zeros of an id are not kept.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.io.IOException;
+import java.io.FileNotFoundException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+public class TSVIngester
+{
+    // chunks are about this many bytes, unless the file is small
+    private static final long CHUNK_SIZE = 8L << 20;
+
+    /**
+     * One account line of the input file.
+     */
+    public static class Row
+    {
+        final String name;
+        final long userId;
+        final int tweetCount;
+        final int storyCount;
+        final long[] stories;
+
+        Row(String name, long userId, int tweetCount, int storyCount, long[] stories)
+        {
+            this.name = name;
+            this.userId = userId;
+            this.tweetCount = tweetCount;
+            this.storyCount = storyCount;
+            this.stories = stories;
+        }
+
+        /**
+         * Returns the account of this row as a TwitterUser.
+         *
+         * @return TwitterUser - the account
+         */
+        public TwitterUser toUser(){
+            return new TwitterUser(name, Long.toString(userId), tweetCount, storyCount);
+        }
+
+        /**
+         * gets the story ids listed on this row
+         *
+         * @return long[] - the story ids
+         */
+        public long[] getStoryIds(){
+            return stories;
+        }
+    }
+
+    /**
+     * The rows and errors of one chunk, with line numbers counted from the start of the chunk.
+     */
+    private static class Chunk
+    {
+        final List<Row> rows = new ArrayList<Row>();
+        final List<Integer> errorLines = new ArrayList<Integer>();
+        final List<String> errorNames = new ArrayList<String>();
+        int lines;
+    }
+
+    // instance variables
+    private final Path file;
+    private List<Row> rows;
+    private List<String> errors;
+
+    /**
+     * Constructor for objects of class TSVIngester
+     *
+     * @param the name of the file to read
+     */
+    public TSVIngester(String fileName)
+    {
+        this(Paths.get(fileName));
+    }
+
+    /**
+     * Constructor for objects of class TSVIngester
+     *
+     * @param the file to read
+     */
+    public TSVIngester(Path file)
+    {
+        this.file = file;
+    }
+
+    /**
+     * Reads and parses the whole file.
+     *
+     * @return List<Row> - the well formatted account rows, in file order
+     * @exception FileNotFoundException thrown when the input file is not found
+     * @exception IOException thrown when the file cannot be read
+     */
+    public List<Row> ingest() throws IOException {
+        if(!Files.isRegularFile(file)){
+            throw new FileNotFoundException(file.toString());
+        }
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            long size = channel.size();
+            long[] bounds = chunkBounds(channel, size);
+            int numChunks = bounds.length - 1;
+            Chunk[] chunks = new Chunk[numChunks];
+            IOException[] failure = new IOException[1];
+            IntStream.range(0, numChunks).parallel().forEach(c -> {
+                try{
+                    MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY,
+                        bounds[c], bounds[c+1] - bounds[c]);
+                    chunks[c] = parse(buf);
+                }catch(IOException e){
+                    failure[0] = e;
+                }
+            });
+            if(failure[0] != null){
+                throw failure[0];
+            }
+            //stitch the chunks together, in order
+            rows = new ArrayList<Row>();
+            errors = new ArrayList<String>();
+            int line = 2; //the first chunk starts after the header
+            for(Chunk chunk : chunks){
+                rows.addAll(chunk.rows);
+                for(int i = 0; i < chunk.errorLines.size(); i++){
+                    errors.add("line " + (line + chunk.errorLines.get(i)) + ": format error in "
+                        + chunk.errorNames.get(i) + "'s data");
+                }
+                line += chunk.lines;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the rows read by the last call to ingest.
+     *
+     * @return List<Row> - the well formatted account rows, in file order
+     */
+    public List<Row> getRows(){
+        return rows;
+    }
+
+    /**
+     * Returns a message for every badly formatted row found by the last call to ingest.
+     *
+     * @return List<String> - one message per ignored row
+     */
+    public List<String> getErrors(){
+        return errors;
+    }
+
+    /**
+     * Splits the file, past the header line, into chunks that start at the
+     * beginning of a line.
+     *
+     * @return the start of every chunk, followed by the size of the file
+     */
+    private static long[] chunkBounds(FileChannel channel, long size) throws IOException {
+        long start = nextLineStart(channel, 0, size);
+        int wanted = (int) ((size - start) / CHUNK_SIZE + 1);
+        long step = Math.max(1, (size - start) / wanted);
+        List<Long> bounds = new ArrayList<Long>();
+        bounds.add(start);
+        for(int i = 1; i < wanted; i++){
+            long b = nextLineStart(channel, start + i * step - 1, size);
+            if(b > bounds.get(bounds.size() - 1) && b < size){
+                bounds.add(b);
+            }
+        }
+        bounds.add(size);
+        long[] result = new long[bounds.size()];
+        for(int i = 0; i < result.length; i++){
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the position just after the first line break at or after pos.
+     */
+    private static long nextLineStart(FileChannel channel, long pos, long size) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        while(pos < size){
+            buf.clear();
+            int read = channel.read(buf, pos);
+            if(read <= 0){
+                break;
+            }
+            for(int i = 0; i < read; i++){
+                if(buf.get(i) == '\n'){
+                    return pos + i + 1;
+                }
+            }
+            pos += read;
+        }
+        return size;
+    }
+
+    /**
+     * Parses every line of a chunk.
+     */
+    private static Chunk parse(ByteBuffer buf){
+        Chunk chunk = new Chunk();
+        int end = buf.limit();
+        int pos = 0;
+        while(pos < end){
+            int lineEnd = pos;
+            while(lineEnd < end && buf.get(lineEnd) != '\n'){
+                lineEnd++;
+            }
+            parseLine(buf, pos, lineEnd, chunk);
+            chunk.lines++;
+            pos = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    /**
+     * Parses one account line, adding it to the rows or to the errors of the chunk.
+     */
+    private static void parseLine(ByteBuffer buf, int pos, int end, Chunk chunk){
+        int[] field = new int[2]; // start and end of the current field
+        pos = nextField(buf, pos, end, field);
+        if(field[0] == field[1]){
+            return; // blank line
+        }
+        String name = text(buf, field[0], field[1]);
+        long id;
+        int tweet;
+        int storyC;
+        long[] stories;
+        try{
+            pos = nextField(buf, pos, end, field);
+            id = parseLong(buf, field[0], field[1]);
+            pos = nextField(buf, pos, end, field);
+            tweet = parseInt(buf, field[0], field[1]);
+            pos = nextField(buf, pos, end, field);
+            storyC = parseInt(buf, field[0], field[1]);
+            nextField(buf, pos, end, field);
+            //the story ids, separated by commas; the story count is only a hint,
+            //a field of n bytes holds at most (n+1)/2 ids
+            stories = new long[Math.max(1, Math.min(storyC, (field[1] - field[0] + 1) / 2))];
+            int count = 0;
+            int s = field[0];
+            for(int i = field[0]; i <= field[1]; i++){
+                if(i == field[1] || buf.get(i) == ','){
+                    if(i > s){
+                        if(count == stories.length){
+                            stories = java.util.Arrays.copyOf(stories, count * 2);
+                        }
+                        stories[count++] = parseLong(buf, s, i);
+                    }
+                    s = i + 1;
+                }
+            }
+            stories = java.util.Arrays.copyOf(stories, count);
+        }catch(NumberFormatException e){ //a number was not properly formatted
+            chunk.errorLines.add(chunk.lines);
+            chunk.errorNames.add(name);
+            return;
+        }
+        chunk.rows.add(new Row(name, id, tweet, storyC, stories));
+    }
+
+    /**
+     * Finds the next white space separated field at or after pos, storing its
+     * start and end in field.
+     *
+     * @return the position just after the field
+     */
+    private static int nextField(ByteBuffer buf, int pos, int end, int[] field){
+        while(pos < end && isSpace(buf.get(pos))){
+            pos++;
+        }
+        field[0] = pos;
+        while(pos < end && !isSpace(buf.get(pos))){
+            pos++;
+        }
+        field[1] = pos;
+        return pos;
+    }
+
+    private static boolean isSpace(byte b){
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Parses a non-negative decimal number from the given bytes.
+     *
+     * @exception NumberFormatException thrown when the bytes are not a number or larger than Long.MAX_VALUE
+     */
+    private static long parseLong(ByteBuffer buf, int start, int end){
+        if(start == end){
+            throw new NumberFormatException();
+        }
+        long value = 0;
+        for(int i = start; i < end; i++){
+            int digit = buf.get(i) - '0';
+            if(digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10){
+                throw new NumberFormatException();
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Parses a non-negative decimal int from the given bytes.
+     *
+     * @exception NumberFormatException thrown when the bytes are not a number or too large
+     */
+    private static int parseInt(ByteBuffer buf, int start, int end){
+        long value = parseLong(buf, start, end);
+        if(value > Integer.MAX_VALUE){
+            throw new NumberFormatException();
+        }
+        return (int) value;
+    }
+
+    /**
+     * Decodes the given bytes as a UTF-8 string.
+     */
+    private static String text(ByteBuffer buf, int start, int end){
+        byte[] bytes = new byte[end - start];
+        ByteBuffer view = buf.duplicate();
+        view.position(start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("*****TESTING*****");
+        Path file = Files.createTempFile("accounts", ".tsv");
+        Files.write(file, ("name\tid\ttweets\tstories\tstoryIds\n"
+                + "a\t1\t10\t2\t100,101\n"
+                + "NewAcct\t1234567890123456789\t5\t1\t102\n"
+                + "max\t9223372036854775807\t5\t1\t102\n"
+                + "tooBig\t9223372036854775808\t5\t1\t102\n"
+                + "zeros\t0042\t5\t1\t102\n").getBytes(StandardCharsets.UTF_8));
+        TSVIngester ingester = new TSVIngester(file);
+        List<Row> rows = ingester.ingest();
+        System.out.println("rows read expecting: 4 result: " + rows.size());
+        System.out.println("19-digit id expecting: 1234567890123456789 result: " + rows.get(1).userId);
+        System.out.println("largest id expecting: " + Long.MAX_VALUE + " result: " + rows.get(2).userId);
+        System.out.println("leading zeros dropped expecting: 42 result: " + rows.get(3).toUser().getID());
+        System.out.println("errors expecting: 1 result: " + ingester.getErrors().size());
+        Files.delete(file);
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Finds the k highest scores in an array of scores, such as the degree of
+ * every vertex, in one pass with a heap that never holds more than k
+ * entries, so it takes O(n log k) time. Ties are broken in favour of the
+ * smaller index, so the result does not depend on how the work was split.
+ *
+ * The parallel version splits the array into slices, finds the top k of
+ * every slice at the same time and merges them.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.util.stream.IntStream;
+public class TopK
+{
+    // slices of the parallel version hold at least this many scores
+    private static final int GRAIN = 1 << 16;
+
+    /**
+     * Returns the indices of the k highest scores, highest first.
+     *
+     * @param the scores
+     * @param the number of indices wanted
+     * @return at most k indices into scores, in decreasing order of score
+     */
+    public static int[] top(int[] scores, int k){
+        return top(scores, 0, scores.length, k);
+    }
+
+    /**
+     * Returns the indices of the k highest scores, highest first, looking at
+     * the scores in slices at the same time when there are many of them.
+     *
+     * @param the scores
+     * @param the number of indices wanted
+     * @return the same indices as top(scores, k)
+     */
+    public static int[] parallelTop(int[] scores, int k){
+        int slices = (scores.length + GRAIN - 1) / GRAIN;
+        if(slices <= 1 || k <= 0){
+            return top(scores, k);
+        }
+        int[][] partial = IntStream.range(0, slices).parallel()
+            .mapToObj(i -> top(scores, i * GRAIN, Math.min(scores.length, (i + 1) * GRAIN), k))
+            .toArray(int[][]::new);
+        //the top k of everything is among the top k of the slices
+        Heap heap = new Heap(scores, k);
+        for(int[] slice : partial){
+            for(int i : slice){
+                heap.offer(i);
+            }
+        }
+        return heap.sorted();
+    }
+
+    /**
+     * Returns the indices of the k highest scores between from and to.
+     */
+    private static int[] top(int[] scores, int from, int to, int k){
+        Heap heap = new Heap(scores, Math.max(k, 0));
+        for(int i = from; i < to; i++){
+            heap.offer(i);
+        }
+        return heap.sorted();
+    }
+
+    /**
+     * A min-heap of at most k indices, ordered by their scores, whose root
+     * is the lowest of the k best indices seen so far.
+     */
+    private static class Heap
+    {
+        private final int[] scores;
+        private final int[] heap;
+        private int size;
+
+        Heap(int[] scores, int k)
+        {
+            this.scores = scores;
+            heap = new int[k];
+        }
+
+        /**
+         * Returns true if index a ranks below index b.
+         */
+        private boolean below(int a, int b){
+            return scores[a] < scores[b] || (scores[a] == scores[b] && a > b);
+        }
+
+        void offer(int i){
+            if(size < heap.length){
+                heap[size] = i;
+                siftUp(size++);
+            }else if(size > 0 && below(heap[0], i)){
+                heap[0] = i;
+                siftDown(0, size);
+            }
+        }
+
+        /**
+         * Empties the heap into an array, best index first.
+         */
+        int[] sorted(){
+            int[] result = new int[size];
+            for(int n = size; n > 0; n--){
+                result[n-1] = heap[0];
+                heap[0] = heap[n-1];
+                siftDown(0, n - 1);
+            }
+            size = 0;
+            return result;
+        }
+
+        private void siftUp(int pos){
+            int i = heap[pos];
+            while(pos > 0){
+                int parent = (pos - 1) / 2;
+                if(!below(i, heap[parent])){
+                    break;
+                }
+                heap[pos] = heap[parent];
+                pos = parent;
+            }
+            heap[pos] = i;
+        }
+
+        private void siftDown(int pos, int n){
+            int i = heap[pos];
+            while(2 * pos + 1 < n){
+                int child = 2 * pos + 1;
+                if(child + 1 < n && below(heap[child+1], heap[child])){
+                    child++;
+                }
+                if(!below(heap[child], i)){
+                    break;
+                }
+                heap[pos] = heap[child];
+                pos = child;
+            }
+            heap[pos] = i;
+        }
+    }
+
+    public static void main(String[] args){
+        System.out.println("*****TESTING*****");
+        int[] scores = {5, 1, 9, 5, 7, 0, 9};
+        System.out.println("top(3) expecting: [2, 6, 4] result: " + java.util.Arrays.toString(top(scores, 3)));
+        System.out.println("top(10) expecting: [2, 6, 4, 0, 3, 1, 5] result: " + java.util.Arrays.toString(top(scores, 10)));
+        System.out.println("top(0) expecting: [] result: " + java.util.Arrays.toString(top(scores, 0)));
+        java.util.Random random = new java.util.Random(18);
+        int[] many = new int[1000000];
+        for(int i = 0; i < many.length; i++){
+            many[i] = random.nextInt(5000);
+        }
+        System.out.println("parallelTop(100) same as top(100) expecting: true result: "
+            + java.util.Arrays.equals(top(many, 100), parallelTop(many, 100)));
+    }
+}
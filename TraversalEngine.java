@@ -0,0 +1,221 @@
+/**
+ * Breadth first and depth first traversals over the dense vertex indices
+ * of a CompactGraph. All the working memory (queue, stack, visited marks,
+ * depth and parent arrays) is allocated once, when the engine is created,
+ * and reused by every traversal, so running many traversals allocates
+ * almost nothing. An engine is not thread safe: get one from
+ * CompactGraph.getTraversalEngine() and release it when done.
+ *
+ * After a traversal, the visited vertices can be read in visiting order with
+ * getOrder, and getDepth and getParent describe the traversal tree.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+public class TraversalEngine
+{
+    // instance variables
+    private final int[] offsets; // CSR arrays of the graph, shared, never changed
+    private final int[] targets;
+    private final int n;
+
+    private int[] queue; // ring buffer of vertices waiting to be expanded (BFS)
+    private int head; // position of the first vertex in the queue
+    private int queueSize;
+
+    private final int[] stack; // vertices on the current DFS path
+    private final int[] cursor; // next arc to look at, for each vertex on the stack
+
+    private final long[] visited; // one bit per vertex
+    private final int[] order; // visited vertices, in visiting order
+    private int visitedCount;
+    private final int[] depth;
+    private final int[] parent;
+
+    /**
+     * Constructor for objects of class TraversalEngine
+     *
+     * @param the graph to traverse
+     */
+    public TraversalEngine(CompactGraph<?> g)
+    {
+        offsets = g.getOffsets();
+        targets = g.getTargets();
+        n = g.getNumVertices();
+        queue = new int[Math.max(16, Math.min(n, 1024))];
+        stack = new int[n];
+        cursor = new int[n];
+        visited = new long[(n + 63) >>> 6];
+        order = new int[n];
+        depth = new int[n];
+        parent = new int[n];
+    }
+
+    /**
+     * Runs a breadth first traversal from the given vertex.
+     *
+     * @param the index of the vertex where the traversal begins
+     * @return the number of vertices reached, including the source
+     */
+    public int bfs(int source){
+        reset();
+        visit(source, -1, 0);
+        enqueue(source);
+        while(queueSize > 0){
+            int v = dequeue();
+            int d = depth[v] + 1;
+            for(int k = offsets[v]; k < offsets[v+1]; k++){
+                int w = targets[k];
+                if(!isVisited(w)){
+                    visit(w, v, d);
+                    enqueue(w);
+                }
+            }
+        }
+        return visitedCount;
+    }
+
+    /**
+     * Runs a depth first traversal from the given vertex. Each vertex keeps
+     * a cursor into its successors, so no successor list is looked at twice.
+     *
+     * @param the index of the vertex where the traversal begins
+     * @return the number of vertices reached, including the source
+     */
+    public int dfs(int source){
+        reset();
+        int top = 0;
+        visit(source, -1, 0);
+        stack[top++] = source;
+        cursor[source] = offsets[source];
+        while(top > 0){
+            int v = stack[top-1];
+            if(cursor[v] == offsets[v+1]){
+                top--; // all successors have been visited
+            }else{
+                int w = targets[cursor[v]++];
+                if(!isVisited(w)){
+                    visit(w, v, top);
+                    cursor[w] = offsets[w];
+                    stack[top++] = w;
+                }
+            }
+        }
+        return visitedCount;
+    }
+
+    /**
+     * Returns the number of vertices reached by the last traversal.
+     *
+     * @return the number of visited vertices
+     */
+    public int getVisitedCount(){
+        return visitedCount;
+    }
+
+    /**
+     * Returns the i-th vertex visited by the last traversal.
+     *
+     * @param a position between 0 and getVisitedCount()-1
+     * @return the index of the vertex visited at that position
+     */
+    public int getOrder(int i){
+        if(i < 0 || i >= visitedCount){
+            throw new IndexOutOfBoundsException("Position " + i + " of " + visitedCount);
+        }
+        return order[i];
+    }
+
+    /**
+     * Returns a copy of the visiting order of the last traversal.
+     *
+     * @return the indices of the visited vertices, in visiting order
+     */
+    public int[] copyOrder(){
+        return java.util.Arrays.copyOf(order, visitedCount);
+    }
+
+    /**
+     * Returns true if the last traversal reached the given vertex.
+     *
+     * @param the index of a vertex
+     * @return true if the vertex was visited
+     */
+    public boolean isVisited(int v){
+        return (visited[v >>> 6] & (1L << v)) != 0;
+    }
+
+    /**
+     * Returns the depth of a vertex in the tree of the last traversal. For a
+     * breadth first traversal this is the number of hops from the source.
+     *
+     * @param the index of a vertex
+     * @return the depth of the vertex, or -1 if it was not visited
+     */
+    public int getDepth(int v){
+        return isVisited(v) ? depth[v] : -1;
+    }
+
+    /**
+     * Returns the vertex from which the given vertex was reached in the last traversal.
+     *
+     * @param the index of a vertex
+     * @return the index of its parent, or -1 for the source and unvisited vertices
+     */
+    public int getParent(int v){
+        return isVisited(v) ? parent[v] : -1;
+    }
+
+    /**
+     * Clears the marks left by the previous traversal. Only the vertices that
+     * were visited are touched, so this is cheap after a small traversal.
+     */
+    private void reset(){
+        if(visitedCount * 8 > n){
+            java.util.Arrays.fill(visited, 0L);
+        }else{
+            for(int i = 0; i < visitedCount; i++){
+                visited[order[i] >>> 6] = 0L;
+            }
+        }
+        visitedCount = 0;
+        head = 0;
+        queueSize = 0;
+    }
+
+    /**
+     * Marks a vertex visited and records where it was reached from.
+     */
+    private void visit(int v, int from, int d){
+        visited[v >>> 6] |= 1L << v;
+        depth[v] = d;
+        parent[v] = from;
+        order[visitedCount++] = v;
+    }
+
+    /**
+     * Adds a vertex at the rear of the ring buffer, doubling it when full.
+     */
+    private void enqueue(int v){
+        if(queueSize == queue.length){
+            int[] larger = new int[queue.length * 2];
+            for(int i = 0; i < queueSize; i++){
+                larger[i] = queue[(head + i) % queue.length];
+            }
+            queue = larger;
+            head = 0;
+        }
+        queue[(head + queueSize) % queue.length] = v;
+        queueSize++;
+    }
+
+    /**
+     * Removes and returns the vertex at the front of the ring buffer.
+     */
+    private int dequeue(){
+        int v = queue[head];
+        head = (head + 1) % queue.length;
+        queueSize--;
+        return v;
+    }
+}
@@ -1,7 +1,8 @@
 
 /**
  * This object represents a twitter user and contains their name id tweet count
- * and story count
+ * and story count. It either holds these itself, or is a view of one account
+ * of a UserStore and reads them from there.
  *
  * @author Farzana Patwa Anushri Jhunjhunwala
  * @version 12/5/19
@@ -13,6 +14,8 @@ public class TwitterUser
     private String userId; // user id 
     private int tCount; // tweet count
     private int sCount; //story count
+    private UserStore store; // the store this is a view of, null if it holds its own data
+    private int number; // its account number in the store
     
 
     /**
@@ -26,13 +29,22 @@ public class TwitterUser
         sCount = s;
         
     }
+
+    /**
+     * Constructor for a view of an account of a UserStore
+     */
+    TwitterUser(UserStore store, int number)
+    {
+        this.store = store;
+        this.number = number;
+    }
     /**
      * gets the name of the twitter user
      * 
      * @return String - name of the user
      */
     public String getName(){
-        return name;
+        return (store == null) ? name : store.getName(number);
     }
     /**
      * gets the id of the twitter user
@@ -40,7 +52,7 @@ public class TwitterUser
      * @return String - id of the user
      */
     public String getID(){
-        return userId;
+        return (store == null) ? userId : Long.toString(store.getUserId(number));
     }
     /**
      * gets the tweet count of the twitter user
@@ -48,7 +60,7 @@ public class TwitterUser
      * @return int - tweet count of the user
      */
     public int getTweetCount(){
-        return tCount;
+        return (store == null) ? tCount : store.getTweetCount(number);
     }
     /**
      * gets the story count of the twitter user
@@ -56,7 +68,7 @@ public class TwitterUser
      * @return int - story count of the user
      */
     public int getStoryCount(){
-        return sCount;
+        return (store == null) ? sCount : store.getStoryCount(number);
     }
     /** 
      * Returns a string representation of the twitter user 
@@ -65,7 +77,7 @@ public class TwitterUser
      * 
      *  */
     public String toString(){
-        String s = "Name: " + name + " ID:" +userId + " Tweet Count: " + tCount + " Story Count: " + sCount;
+        String s = "Name: " + getName() + " ID:" + getID() + " Tweet Count: " + getTweetCount() + " Story Count: " + getStoryCount();
         return s;
     }
     
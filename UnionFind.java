@@ -0,0 +1,142 @@
+/**
+ * A union-find (disjoint set) structure over the integers 0 .. size()-1.
+ * find uses path compression (path halving) and union links the smaller
+ * set under the larger one, so any sequence of operations runs in nearly
+ * constant time per operation. New elements can be added at any time.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.util.Arrays;
+public class UnionFind
+{
+    // instance variables
+    private int[] parent; // parent[i] == i for the root of a set
+    private int[] setSize; // number of elements in the set, valid for roots only
+    private int count; // number of elements
+    private int sets; // number of disjoint sets
+    private int largestRoot = -1; // root of the largest set
+
+    /**
+     * Constructor for objects of class UnionFind, each element in its own set
+     *
+     * @param the number of elements
+     */
+    public UnionFind(int n)
+    {
+        parent = new int[Math.max(n, 16)];
+        setSize = new int[parent.length];
+        for(int i = 0; i < n; i++){
+            add();
+        }
+    }
+
+    /**
+     * Adds a new element, in a set of its own.
+     *
+     * @return the new element
+     */
+    public int add(){
+        if(count == parent.length){
+            parent = Arrays.copyOf(parent, count * 2);
+            setSize = Arrays.copyOf(setSize, count * 2);
+        }
+        int e = count++;
+        parent[e] = e;
+        setSize[e] = 1;
+        sets++;
+        if(largestRoot == -1){
+            largestRoot = e;
+        }
+        return e;
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size(){
+        return count;
+    }
+
+    /**
+     * Returns the number of disjoint sets.
+     *
+     * @return the number of sets
+     */
+    public int getNumSets(){
+        return sets;
+    }
+
+    /**
+     * Returns the root of the set that contains the given element.
+     *
+     * @param an element
+     * @return the representative of its set
+     */
+    public int find(int e){
+        while(parent[e] != e){
+            parent[e] = parent[parent[e]]; // path halving
+            e = parent[e];
+        }
+        return e;
+    }
+
+    /**
+     * Merges the sets that contain the two given elements.
+     *
+     * @param an element
+     * @param another element
+     * @return true if the sets were different, false if they were already the same set
+     */
+    public boolean union(int a, int b){
+        int ra = find(a);
+        int rb = find(b);
+        if(ra == rb){
+            return false;
+        }
+        if(setSize[ra] < setSize[rb]){
+            int t = ra;
+            ra = rb;
+            rb = t;
+        }
+        parent[rb] = ra;
+        setSize[ra] += setSize[rb];
+        sets--;
+        if(setSize[ra] > setSize[largestRoot] || largestRoot == rb){
+            largestRoot = ra;
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the two given elements are in the same set.
+     *
+     * @param an element
+     * @param another element
+     * @return true if they are in the same set
+     */
+    public boolean connected(int a, int b){
+        return find(a) == find(b);
+    }
+
+    /**
+     * Returns the number of elements in the set that contains the given element.
+     *
+     * @param an element
+     * @return the size of its set
+     */
+    public int getSetSize(int e){
+        return setSize[find(e)];
+    }
+
+    /**
+     * Returns the root of the largest set.
+     *
+     * @return the representative of the largest set, -1 if there are no elements
+     */
+    public int getLargestRoot(){
+        return largestRoot;
+    }
+}
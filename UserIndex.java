@@ -0,0 +1,392 @@
+/**
+ * A sorted index of the accounts of a UserStore by one numeric attribute,
+ * such as the tweet count. The keys are kept in a sorted int array next to
+ * the account numbers, so
+ * a range of keys is found with two binary searches and then read off in
+ * order: range queries, counts, percentiles and ordered iteration take
+ * O(log n + k) time for k results.
+ *
+ * Accounts added to the index wait in a small unsorted buffer, and removed
+ * accounts are only marked; the next query sorts the buffer and merges it
+ * into the index, leaving the removed accounts out, in one pass. Adding and
+ * replacing accounts one at a time while a graph is read stays cheap.
+ * Accounts with the same key are kept in the order they were added.
+ *
+ * A snapshot of an index is a read-only copy that lists the accounts as
+ * they were when it was taken, for one published version of a RAT graph.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+public class UserIndex
+{
+    // instance variables
+    private final String name;
+    private final IntFunction<TwitterUser> view; // account number -> the account
+    private final boolean readOnly; // true for a snapshot
+    private final ToIntFunction<TwitterUser> attribute;
+    // the index, sorted by key; both arrays are replaced, never changed, once filled
+    private int[] keys = new int[0];
+    private int[] users = new int[0]; // account numbers
+    // accounts added since the last merge
+    private int[] pendingKeys = new int[16];
+    private int[] pendingUsers = new int[16];
+    private int numPending;
+    private final BitSet isPending = new BitSet(); // account numbers in the pending buffer
+    private int[] pendingAt = new int[16]; // account number -> its position in the pending buffer
+    private int numStale; // pending entries of accounts removed again before the merge
+    private final BitSet inIndex = new BitSet(); // account numbers in the sorted arrays
+    private final BitSet dropped = new BitSet(); // account numbers to leave out at the next merge
+    private int numDropped;
+
+    /**
+     * Constructor for objects of class UserIndex
+     *
+     * @param the name of the attribute, e.g. "tweetCount"
+     * @param the accounts
+     * @param gives the attribute of an account
+     */
+    public UserIndex(String name, UserStore store, ToIntFunction<TwitterUser> attribute)
+    {
+        this(name, store::view, attribute, false);
+    }
+
+    private UserIndex(String name, IntFunction<TwitterUser> view, ToIntFunction<TwitterUser> attribute, boolean readOnly)
+    {
+        this.name = name;
+        this.view = view;
+        this.attribute = attribute;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Returns a read-only copy of the index as it is now. The copy shares
+     * the sorted arrays, which are never changed once filled.
+     *
+     * @param gives the accounts, as the copy should list them
+     * @return UserIndex - the copy; adding or removing accounts from it throws
+     * UnsupportedOperationException
+     */
+    public synchronized UserIndex snapshot(IntFunction<TwitterUser> view){
+        merge();
+        UserIndex copy = new UserIndex(name, view, attribute, true);
+        copy.keys = keys;
+        copy.users = users;
+        copy.inIndex.or(inIndex);
+        return copy;
+    }
+
+    private void checkWritable(){
+        if(readOnly){
+            throw new UnsupportedOperationException("the " + name + " index is a read-only snapshot");
+        }
+    }
+
+    /**
+     * Returns the name of the indexed attribute.
+     *
+     * @return the name given to the constructor
+     */
+    public String getName(){
+        return name;
+    }
+
+    /**
+     * Adds an account to the index.
+     *
+     * @param the number of the account in the store
+     */
+    public synchronized void add(int user){
+        checkWritable();
+        if(numPending == pendingKeys.length){
+            pendingKeys = Arrays.copyOf(pendingKeys, numPending * 2);
+            pendingUsers = Arrays.copyOf(pendingUsers, numPending * 2);
+        }
+        if(user >= pendingAt.length){
+            pendingAt = Arrays.copyOf(pendingAt, Math.max(user + 1, pendingAt.length * 2));
+        }
+        if(isPending.get(user)){
+            numStale++; // the earlier entry is replaced
+        }
+        pendingKeys[numPending] = key(user);
+        pendingUsers[numPending] = user;
+        pendingAt[user] = numPending;
+        numPending++;
+        isPending.set(user);
+    }
+
+    /**
+     * Removes an account from the index.
+     *
+     * @param the number of the account in the store
+     * @return true if the account was in the index
+     */
+    public synchronized boolean remove(int user){
+        checkWritable();
+        if(isPending.get(user)){
+            //its entry stays in the buffer and is left out at the merge
+            isPending.clear(user);
+            numStale++;
+            return true;
+        }
+        if(inIndex.get(user) && !dropped.get(user)){
+            dropped.set(user);
+            numDropped++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of accounts in the index.
+     *
+     * @return the number of accounts
+     */
+    public synchronized int size(){
+        return keys.length - numDropped + numPending - numStale;
+    }
+
+    /**
+     * Returns the accounts whose attribute is between low and high, both
+     * included, in increasing order of the attribute.
+     *
+     * @param the lowest key wanted
+     * @param the highest key wanted
+     * @return the accounts in the range
+     */
+    public synchronized LinkedList<TwitterUser> range(int low, int high){
+        merge();
+        LinkedList<TwitterUser> result = new LinkedList<TwitterUser>();
+        for(int i = lowerBound(low); i < keys.length && keys[i] <= high; i++){
+            result.add(view.apply(users[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of accounts whose attribute is between low and high,
+     * both included, without listing them.
+     *
+     * @param the lowest key wanted
+     * @param the highest key wanted
+     * @return the number of accounts in the range
+     */
+    public synchronized int count(int low, int high){
+        merge();
+        if(low > high){
+            return 0;
+        }
+        int end = (high == Integer.MAX_VALUE) ? keys.length : lowerBound(high + 1);
+        return end - lowerBound(low);
+    }
+
+    /**
+     * Returns the account at the given rank, counting from the lowest attribute.
+     *
+     * @param a rank, between 0 and size()-1
+     * @return the account at that rank
+     */
+    public synchronized TwitterUser get(int rank){
+        merge();
+        return view.apply(users[rank]);
+    }
+
+    /**
+     * Returns the account at the given percentile of the attribute: the
+     * account with the lowest attribute such that at least p percent of the
+     * accounts are at or below it.
+     *
+     * @param a percentile, between 0 and 100
+     * @return the account at that percentile, null if the index is empty
+     */
+    public synchronized TwitterUser percentile(double p){
+        merge();
+        if(keys.length == 0){
+            return null;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * keys.length) - 1;
+        return view.apply(users[Math.max(0, Math.min(keys.length - 1, rank))]);
+    }
+
+    /**
+     * Returns the value of the attribute at the given percentile.
+     *
+     * @param a percentile, between 0 and 100
+     * @return the attribute of percentile(p)
+     * @exception NoSuchElementException thrown when the index is empty
+     */
+    public int percentileValue(double p){
+        TwitterUser user = percentile(p);
+        if(user == null){
+            throw new NoSuchElementException("the " + name + " index is empty");
+        }
+        return attribute.applyAsInt(user);
+    }
+
+    /**
+     * Returns the accounts in increasing order of the attribute. Accounts
+     * added while iterating are not seen.
+     *
+     * @return an iterable over all the accounts
+     */
+    public Iterable<TwitterUser> ascending(){
+        int[] snapshot = sorted();
+        return () -> new Iterator<TwitterUser>(){
+            private int i = 0;
+            public boolean hasNext(){
+                return i < snapshot.length;
+            }
+            public TwitterUser next(){
+                if(i == snapshot.length){
+                    throw new NoSuchElementException();
+                }
+                return view.apply(snapshot[i++]);
+            }
+        };
+    }
+
+    /**
+     * Returns the accounts in decreasing order of the attribute. Accounts
+     * added while iterating are not seen.
+     *
+     * @return an iterable over all the accounts
+     */
+    public Iterable<TwitterUser> descending(){
+        int[] snapshot = sorted();
+        return () -> new Iterator<TwitterUser>(){
+            private int i = snapshot.length;
+            public boolean hasNext(){
+                return i > 0;
+            }
+            public TwitterUser next(){
+                if(i == 0){
+                    throw new NoSuchElementException();
+                }
+                return view.apply(snapshot[--i]);
+            }
+        };
+    }
+
+    private synchronized int[] sorted(){
+        merge();
+        return users;
+    }
+
+    private int key(int user){
+        return attribute.applyAsInt(view.apply(user));
+    }
+
+    /**
+     * Returns the first position whose key is at least the given key.
+     */
+    private int lowerBound(int key){
+        int lo = 0;
+        int hi = keys.length;
+        while(lo < hi){
+            int mid = (lo + hi) >>> 1;
+            if(keys[mid] < key){
+                lo = mid + 1;
+            }else{
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Sorts the accounts added since the last merge and merges them into the
+     * index, leaving out the accounts removed since then.
+     */
+    private void merge(){
+        if(numPending == 0 && numDropped == 0){
+            return;
+        }
+        //drop the entries of accounts removed or added again while pending, keeping the order
+        int live = 0;
+        for(int j = 0; j < numPending; j++){
+            int user = pendingUsers[j];
+            if(isPending.get(user) && pendingAt[user] == j){
+                pendingKeys[live] = pendingKeys[j];
+                pendingUsers[live++] = user;
+            }
+        }
+        numPending = live;
+        numStale = 0;
+        //sort the new accounts by key, keeping the order they were added in for equal keys
+        Integer[] order = new Integer[numPending];
+        for(int i = 0; i < numPending; i++){
+            order[i] = i;
+        }
+        int[] pk = pendingKeys;
+        Arrays.sort(order, (a, b) -> Integer.compare(pk[a], pk[b]));
+        int n = keys.length - numDropped + numPending;
+        int[] k = new int[n];
+        int[] u = new int[n];
+        inIndex.andNot(dropped);
+        int i = 0;
+        int j = 0;
+        int out = 0;
+        while(out < n){
+            if(i < keys.length && dropped.get(users[i])){
+                i++;
+            }else if(j == numPending || (i < keys.length && keys[i] <= pk[order[j]])){
+                k[out] = keys[i];
+                u[out++] = users[i++];
+            }else{
+                k[out] = pk[order[j]];
+                u[out] = pendingUsers[order[j++]];
+                inIndex.set(u[out++]);
+            }
+        }
+        keys = k;
+        users = u;
+        numPending = 0;
+        numDropped = 0;
+        isPending.clear();
+        dropped.clear();
+    }
+
+    public static void main(String[] args){
+        System.out.println("*****TESTING*****");
+        UserStore store = new UserStore();
+        UserIndex tweets = new UserIndex("tweetCount", store, TwitterUser::getTweetCount);
+        int a = store.add("a", 1, 50, 1);
+        tweets.add(a);
+        tweets.add(store.add("b", 2, 300, 1));
+        tweets.add(store.add("c", 3, 120, 1));
+        System.out.println("count(100,500) expecting: 2 result: " + tweets.count(100, 500));
+        tweets.add(store.add("d", 4, 120, 1));
+        tweets.add(store.add("e", 5, 900, 1));
+        String names = "";
+        for(TwitterUser user : tweets.range(100, 500)){
+            names += user.getName();
+        }
+        System.out.println("range(100,500) expecting: cdb result: " + names);
+        System.out.println("percentileValue(50) expecting: 120 result: " + tweets.percentileValue(50));
+        System.out.println("percentileValue(100) expecting: 900 result: " + tweets.percentileValue(100));
+        names = "";
+        for(TwitterUser user : tweets.descending()){
+            names += user.getName();
+        }
+        System.out.println("descending() expecting: ebdca result: " + names);
+        System.out.println("remove(a) expecting: true 4 result: " + tweets.remove(a) + " " + tweets.size());
+        System.out.println("get(0) expecting: c result: " + tweets.get(0).getName());
+        tweets.remove(store.find("b"));
+        tweets.add(store.add("b", 2, 500, 1));
+        tweets.remove(store.find("b")); // removed again before the merge
+        tweets.add(store.add("b", 2, 1000, 1));
+        System.out.println("b moved to the top expecting: b 4 result: "
+            + tweets.percentile(100).getName() + " " + tweets.size());
+        UserIndex frozen = tweets.snapshot(store::view);
+        tweets.add(store.add("f", 6, 2000, 1));
+        System.out.println("snapshot does not see f expecting: b 4 result: "
+            + frozen.percentile(100).getName() + " " + frozen.size());
+    }
+}
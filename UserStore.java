@@ -0,0 +1,332 @@
+/**
+ * The accounts of a RAT graph, stored column by column. Every account gets a
+ * dense number, in the order accounts are added, and each attribute is kept
+ * in its own array indexed by that number: the screen names as UTF-8 bytes
+ * packed one after another in a single byte pool, the user ids as longs,
+ * and the tweet and story counts as ints. A name is found through an open
+ * addressing table of account numbers, so there is no per-account object
+ * at all; TwitterUser objects are made on demand as views of one row.
+ *
+ * Scans over a count are plain loops over an int array, see getTweetCounts
+ * and getStoryCounts.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+public class UserStore
+{
+    // instance variables
+    private byte[] namePool = new byte[1024];
+    private int poolSize;
+    private int[] nameStart = new int[17]; // name of account u is namePool[nameStart[u] .. nameStart[u+1]-1]
+    private int[] nameHash = new int[16];
+    private long[] ids = new long[16];
+    private int[] tweetCounts = new int[16];
+    private int[] storyCounts = new int[16];
+    private int size;
+    private int[] slots = new int[32]; // account number + 1 of every used slot, 0 when empty
+
+    /**
+     * Constructor for objects of class UserStore
+     */
+    public UserStore()
+    {
+    }
+
+    /**
+     * Returns a store holding the given columns, as written out by a RAT
+     * snapshot. The arrays are used as given, they are not copied; only
+     * the table of names is built.
+     *
+     * @param the UTF-8 bytes of all the names, one after another
+     * @param where each name starts in the pool, one more than the number of accounts
+     * @param the String hash code of every name
+     * @param the user ids
+     * @param the tweet counts
+     * @param the story counts
+     * @return UserStore - the accounts, numbered as in the arrays
+     */
+    static UserStore load(byte[] namePool, int[] nameStart, int[] nameHash, long[] ids, int[] tweetCounts, int[] storyCounts){
+        int n = ids.length;
+        if(nameStart.length != n + 1 || nameHash.length != n || tweetCounts.length != n || storyCounts.length != n
+           || nameStart[0] != 0 || nameStart[n] != namePool.length){
+            throw new IllegalArgumentException("the columns do not have the same number of accounts");
+        }
+        UserStore store = new UserStore();
+        store.namePool = namePool;
+        store.poolSize = namePool.length;
+        store.nameStart = nameStart;
+        store.nameHash = nameHash;
+        store.ids = ids;
+        store.tweetCounts = tweetCounts;
+        store.storyCounts = storyCounts;
+        store.size = n;
+        int capacity = 32;
+        while(capacity < n * 2){
+            capacity *= 2;
+        }
+        store.slots = new int[capacity / 2];
+        store.rehash();
+        return store;
+    }
+
+    /**
+     * Adds an account. If an account with the same screen name is already
+     * stored, its id and counts are replaced and it keeps its number.
+     *
+     * @param the screen name
+     * @param the user id
+     * @param the tweet count
+     * @param the story count
+     * @return the number of the account
+     */
+    public synchronized int add(String name, long userId, int tweetCount, int storyCount){
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int hash = name.hashCode();
+        int slot = findSlot(bytes, hash);
+        int u;
+        if(slots[slot] != 0){
+            u = slots[slot] - 1;
+        }else{
+            u = size++;
+            ensureCapacity(size, bytes.length);
+            System.arraycopy(bytes, 0, namePool, poolSize, bytes.length);
+            poolSize += bytes.length;
+            nameStart[u+1] = poolSize;
+            nameHash[u] = hash;
+            slots[slot] = u + 1;
+            if(size * 2 > slots.length){
+                rehash();
+            }
+        }
+        ids[u] = userId;
+        tweetCounts[u] = tweetCount;
+        storyCounts[u] = storyCount;
+        return u;
+    }
+
+    /**
+     * Returns the number of an account.
+     *
+     * @param a screen name
+     * @return the number of the account, -1 if there is none with that name
+     */
+    public synchronized int find(String name){
+        int slot = findSlot(name.getBytes(StandardCharsets.UTF_8), name.hashCode());
+        return slots[slot] - 1;
+    }
+
+    /**
+     * Returns true if an account with the given screen name is stored.
+     *
+     * @param a screen name
+     * @return true if there is such an account
+     */
+    public boolean contains(String name){
+        return find(name) != -1;
+    }
+
+    /**
+     * Returns the number of accounts stored.
+     *
+     * @return the number of accounts
+     */
+    public synchronized int size(){
+        return size;
+    }
+
+    /**
+     * Returns the screen name of an account.
+     *
+     * @param the number of an account
+     * @return its screen name
+     */
+    public synchronized String getName(int u){
+        checkNumber(u);
+        return new String(namePool, nameStart[u], nameStart[u+1] - nameStart[u], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the user id of an account.
+     *
+     * @param the number of an account
+     * @return its user id
+     */
+    public synchronized long getUserId(int u){
+        checkNumber(u);
+        return ids[u];
+    }
+
+    /**
+     * Returns the tweet count of an account.
+     *
+     * @param the number of an account
+     * @return its tweet count
+     */
+    public synchronized int getTweetCount(int u){
+        checkNumber(u);
+        return tweetCounts[u];
+    }
+
+    /**
+     * Returns the story count of an account.
+     *
+     * @param the number of an account
+     * @return its story count
+     */
+    public synchronized int getStoryCount(int u){
+        checkNumber(u);
+        return storyCounts[u];
+    }
+
+    /**
+     * Returns a view of an account. The view reads the store, so it
+     * sees later changes to the account.
+     *
+     * @param the number of an account
+     * @return a TwitterUser backed by this store
+     */
+    public TwitterUser view(int u){
+        checkNumber(u);
+        return new TwitterUser(this, u);
+    }
+
+    /**
+     * Returns the user id of every account, indexed by account number.
+     *
+     * @return a new array of length size()
+     */
+    public synchronized long[] getUserIds(){
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Returns the tweet count of every account, indexed by account number.
+     *
+     * @return a new array of length size()
+     */
+    public synchronized int[] getTweetCounts(){
+        return Arrays.copyOf(tweetCounts, size);
+    }
+
+    /**
+     * Returns the story count of every account, indexed by account number.
+     *
+     * @return a new array of length size()
+     */
+    public synchronized int[] getStoryCounts(){
+        return Arrays.copyOf(storyCounts, size);
+    }
+
+    /**
+     * Returns the number of bytes used for the names and attributes of
+     * the accounts, not counting spare room in the arrays.
+     *
+     * @return an estimate of the memory used per account times the number of accounts
+     */
+    public synchronized long getBytesUsed(){
+        // name bytes, then one start, hash, id, two counts and about two slots per account
+        return poolSize + size * (4L + 4 + 8 + 4 + 4 + 8);
+    }
+
+    // the arrays below are shared, not copied, and must not be changed;
+    // only the first size() accounts, and the bytes of their names, are in use
+
+    synchronized byte[] getNamePool(){
+        return namePool;
+    }
+
+    synchronized int[] getNameStarts(){
+        return nameStart;
+    }
+
+    synchronized int[] getNameHashes(){
+        return nameHash;
+    }
+
+    private void checkNumber(int u){
+        if(u < 0 || u >= size){
+            throw new IndexOutOfBoundsException("no account number " + u);
+        }
+    }
+
+    /**
+     * Returns the slot holding the account with the given name, or the
+     * empty slot where it would go.
+     */
+    private int findSlot(byte[] name, int hash){
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        while(slots[slot] != 0){
+            int u = slots[slot] - 1;
+            if(nameHash[u] == hash && sameName(u, name)){
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean sameName(int u, byte[] name){
+        int start = nameStart[u];
+        return Arrays.equals(namePool, start, nameStart[u+1], name, 0, name.length);
+    }
+
+    private static int mix(int hash){
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private void ensureCapacity(int accounts, int nameBytes){
+        if(accounts > ids.length){
+            int capacity = Math.max(16, ids.length * 2);
+            nameStart = Arrays.copyOf(nameStart, capacity + 1);
+            nameHash = Arrays.copyOf(nameHash, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            tweetCounts = Arrays.copyOf(tweetCounts, capacity);
+            storyCounts = Arrays.copyOf(storyCounts, capacity);
+        }
+        if(poolSize + nameBytes > namePool.length){
+            namePool = Arrays.copyOf(namePool, Math.max(namePool.length * 2, poolSize + nameBytes));
+        }
+    }
+
+    private void rehash(){
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for(int u = 0; u < size; u++){
+            int slot = mix(nameHash[u]) & mask;
+            while(slots[slot] != 0){
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = u + 1;
+        }
+    }
+
+    public static void main(String[] args){
+        System.out.println("*****TESTING*****");
+        UserStore store = new UserStore();
+        int a = store.add("Jenn_Abrams", 2882331822L, 23000, 40);
+        int b = store.add("TEN_GOP", 4224729994L, 147000, 90);
+        System.out.println("find(TEN_GOP) expecting: " + b + " result: " + store.find("TEN_GOP"));
+        System.out.println("find(nobody) expecting: -1 result: " + store.find("nobody"));
+        TwitterUser jenn = store.view(a);
+        System.out.println("view expecting: Name: Jenn_Abrams ID:2882331822 Tweet Count: 23000 Story Count: 40");
+        System.out.println("result: " + jenn);
+        System.out.println("adding Jenn_Abrams again keeps number expecting: " + a + " result: "
+            + store.add("Jenn_Abrams", 2882331822L, 23001, 41));
+        System.out.println("the view sees the change expecting: 23001 result: " + jenn.getTweetCount());
+        for(int i = 0; i < 100000; i++){
+            store.add("user" + i, i, i % 1000, i % 7);
+        }
+        System.out.println("size expecting: 100002 result: " + store.size());
+        System.out.println("getName(find(user99999)) expecting: user99999 result: " + store.getName(store.find("user99999")));
+        long sum = 0;
+        for(int t : store.getStoryCounts()){
+            sum += t;
+        }
+        System.out.println("sum of story counts expecting: " + (41 + 90 + 299995) + " result: " + sum);
+    }
+}
@@ -0,0 +1,252 @@
+/**
+ * Hands out the current version of an immutable value, such as a
+ * CompactGraph, to readers while a writer prepares the next one.
+ *
+ * A writer publishes a new version in one atomic step. A reader pins the
+ * current version and keeps using it, unchanged, until it closes its pin,
+ * even if newer versions are published meanwhile. Every version counts its
+ * pins, and the current version holds one pin of its own; once a version
+ * has been replaced and its last pin is closed, it is dropped so its
+ * memory can be reclaimed, and the optional reclaim action is run on it.
+ *
+ * @author Farzana Patwa and Anushri Jhunjhunwala
+ * @version 10/18/2026
+ */
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+public class VersionManager<G>
+{
+    /**
+     * A published version and the number of pins on it.
+     */
+    private static class Version<G>
+    {
+        final long number;
+        final G value; // never cleared: a reader may still get it from getCurrent()
+        final AtomicInteger pins = new AtomicInteger(1); // the manager's own pin while it is current
+
+        Version(long number, G value)
+        {
+            this.number = number;
+            this.value = value;
+        }
+
+        /**
+         * Adds a pin, unless the version has already been dropped.
+         */
+        boolean tryPin(){
+            while(true){
+                int n = pins.get();
+                if(n == 0){
+                    return false;
+                }
+                if(pins.compareAndSet(n, n + 1)){
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * A reader's hold on one version. Close it when done, best with try-with-resources.
+     */
+    public static class Pin<G> implements AutoCloseable
+    {
+        private final VersionManager<G> manager;
+        private Version<G> version;
+
+        private Pin(VersionManager<G> manager, Version<G> version)
+        {
+            this.manager = manager;
+            this.version = version;
+        }
+
+        /**
+         * Returns the pinned value.
+         *
+         * @return the value, the same every time
+         * @exception IllegalStateException thrown when the pin is closed
+         */
+        public G get(){
+            if(version == null){
+                throw new IllegalStateException("the pin is closed");
+            }
+            return version.value;
+        }
+
+        /**
+         * Returns the number of the pinned version; later versions have higher numbers.
+         *
+         * @return the version number
+         */
+        public long getVersion(){
+            if(version == null){
+                throw new IllegalStateException("the pin is closed");
+            }
+            return version.number;
+        }
+
+        /**
+         * Releases the version. Closing a pin twice does nothing.
+         */
+        public void close(){
+            if(version != null){
+                manager.unpin(version);
+                version = null;
+            }
+        }
+    }
+
+    // instance variables
+    private final AtomicReference<Version<G>> current;
+    private final AtomicInteger liveVersions = new AtomicInteger(1);
+    private final Consumer<G> onReclaim;
+    private long nextNumber = 1; // guarded by this
+
+    /**
+     * Constructor for objects of class VersionManager
+     *
+     * @param the first version
+     */
+    public VersionManager(G first)
+    {
+        this(first, null);
+    }
+
+    /**
+     * Constructor for objects of class VersionManager
+     *
+     * @param the first version
+     * @param run on every version once it is dropped; may be null
+     */
+    public VersionManager(G first, Consumer<G> onReclaim)
+    {
+        current = new AtomicReference<Version<G>>(new Version<G>(0, first));
+        this.onReclaim = onReclaim;
+    }
+
+    /**
+     * Makes a value the current version. Readers pinning from now on get
+     * it; readers holding older versions keep them.
+     *
+     * @param the new version
+     * @return the number of the new version
+     */
+    public long publish(G value){
+        Version<G> next;
+        synchronized(this){
+            next = new Version<G>(nextNumber++, value);
+        }
+        liveVersions.incrementAndGet();
+        Version<G> old = current.getAndSet(next);
+        unpin(old); // the manager's own pin
+        return next.number;
+    }
+
+    /**
+     * Pins the current version.
+     *
+     * @return a pin on the current version, to be closed when done
+     */
+    public Pin<G> pin(){
+        while(true){
+            Version<G> v = current.get();
+            if(v.tryPin()){
+                return new Pin<G>(this, v);
+            }
+            //v was replaced and dropped between reading it and pinning it; try the new one
+        }
+    }
+
+    /**
+     * Returns the current version, without pinning it. The value is never
+     * null, but it may be replaced and reclaimed while it is being used.
+     *
+     * @return the current value
+     */
+    public G getCurrent(){
+        return current.get().value;
+    }
+
+    /**
+     * Returns the number of the current version.
+     *
+     * @return the current version number
+     */
+    public long getCurrentVersion(){
+        return current.get().number;
+    }
+
+    /**
+     * Returns the number of versions not yet dropped, the current one included.
+     *
+     * @return the number of live versions
+     */
+    public int getLiveVersions(){
+        return liveVersions.get();
+    }
+
+    private void unpin(Version<G> v){
+        if(v.pins.decrementAndGet() == 0){
+            liveVersions.decrementAndGet();
+            if(onReclaim != null){
+                onReclaim.accept(v.value);
+            }
+        }
+    }
+
+    public static void main(String[] args){
+        System.out.println("*****TESTING*****");
+        StringBuilder reclaimed = new StringBuilder();
+        VersionManager<String> versions = new VersionManager<String>("v0", reclaimed::append);
+        Pin<String> reader = versions.pin();
+        versions.publish("v1");
+        System.out.println("pinned value after publish expecting: v0 result: " + reader.get());
+        System.out.println("current expecting: v1 result: " + versions.getCurrent());
+        System.out.println("live versions expecting: 2 result: " + versions.getLiveVersions());
+        reader.close();
+        System.out.println("after close, reclaimed expecting: v0 live: 1 result: " + reclaimed + " live: " + versions.getLiveVersions());
+        try(Pin<String> p = versions.pin()){
+            versions.publish("v2");
+            versions.publish("v3");
+            System.out.println("reclaimed while v1 is pinned expecting: v0v2 result: " + reclaimed);
+            System.out.println("pinned version number expecting: 1 result: " + p.getVersion());
+        }
+        System.out.println("reclaimed expecting: v0v2v1 result: " + reclaimed);
+
+        //readers racing a writer must never see a dropped version
+        VersionManager<String> raced = new VersionManager<String>("0");
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger nulls = new AtomicInteger();
+        Thread[] readers = new Thread[4];
+        for(int i = 0; i < readers.length; i++){
+            readers[i] = new Thread(() -> {
+                while(!stop.get()){
+                    if(raced.getCurrent() == null){
+                        nulls.incrementAndGet();
+                    }
+                    try(Pin<String> p = raced.pin()){
+                        if(p.get() == null){
+                            nulls.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            readers[i].start();
+        }
+        for(int i = 1; i <= 500000; i++){
+            raced.publish("v");
+        }
+        stop.set(true);
+        for(Thread t : readers){
+            try{
+                t.join();
+            }catch(InterruptedException e){
+            }
+        }
+        System.out.println("nulls read during publishes expecting: 0 result: " + nulls.get());
+        System.out.println("live versions after readers leave expecting: 1 result: " + raced.getLiveVersions());
+    }
+}